@@ -0,0 +1,18 @@
+package trading212.config;
+
+import java.util.concurrent.ForkJoinPool;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class EvaluationConfig {
+
+    // One work-stealing pool shared by every evaluation request, so concurrent requests split
+    // these workers instead of each starting its own; 0 means one per available processor
+    @Bean(destroyMethod = "shutdown")
+    public ForkJoinPool evaluationPool(@Value("${trading.evaluation.parallelism:0}") int parallelism) {
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        return new ForkJoinPool(threads);
+    }
+}
@@ -1,25 +1,47 @@
 package trading212.controllers;
 
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
+import trading212.services.EvaluationService;
+import trading212.services.HistoryTransferService;
 import trading212.services.PortfolioService;
 import trading212.services.PriceService;
+import trading212.services.ResponseCacheService;
 import trading212.services.TradingBotService;
 
 @RestController
 @RequestMapping("/api")
 public class TradingBotController {
+    private static final List<String> MODES = List.of("TRAINING", "TRADING");
+
     private final TradingBotService tradingBotService;
     private final PortfolioService portfolioService;
     private final PriceService priceService;
+    private final HistoryTransferService historyTransferService;
+    private final ResponseCacheService responseCacheService;
+    private final EvaluationService evaluationService;
 
-    public TradingBotController(TradingBotService tradingBotService, PortfolioService portfolioService, PriceService priceService) {
+    public TradingBotController(TradingBotService tradingBotService, PortfolioService portfolioService, PriceService priceService,
+                                HistoryTransferService historyTransferService, ResponseCacheService responseCacheService,
+                                EvaluationService evaluationService) {
         this.tradingBotService = tradingBotService;
         this.portfolioService = portfolioService;
         this.priceService = priceService;
+        this.historyTransferService = historyTransferService;
+        this.responseCacheService = responseCacheService;
+        this.evaluationService = evaluationService;
     }
 
     @PostMapping("/bot/start")
@@ -52,28 +74,89 @@ public class TradingBotController {
     }
 
     @GetMapping("/bot/status")
-    public ResponseEntity<Map<String, Object>> getBotStatus() {
-        return ResponseEntity.ok(tradingBotService.getBotStatus());
+    public ResponseEntity<byte[]> getBotStatus(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return cachedResponse("status", ResponseCacheService.STATUS_SCOPE, ifNoneMatch, tradingBotService::getBotStatus);
     }
 
     @GetMapping("/account")
-    public ResponseEntity<Map<String, Object>> getAccountInfo(@RequestParam String mode) {
-        return ResponseEntity.ok(portfolioService.getAccountInfo(mode.toUpperCase()));
+    public ResponseEntity<byte[]> getAccountInfo(@RequestParam String mode,
+                                                 @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String normalizedMode = normalizeMode(mode);
+        return cachedResponse("account:" + normalizedMode, normalizedMode, ifNoneMatch,
+                () -> portfolioService.getAccountInfo(normalizedMode));
     }
 
     @GetMapping("/trades")
     public ResponseEntity<List<Map<String, Object>>> getTradeHistory(@RequestParam String mode) {
-        return ResponseEntity.ok(portfolioService.getTradeHistory(mode.toUpperCase()));
+        return ResponseEntity.ok(portfolioService.getTradeHistory(normalizeMode(mode)));
     }
 
     @GetMapping("/prices")
-    public ResponseEntity<List<Map<String, Object>>> getPriceHistory(@RequestParam String mode) {
-        return ResponseEntity.ok(priceService.getPriceHistory(mode.toUpperCase()));
+    public ResponseEntity<byte[]> getPriceHistory(@RequestParam String mode,
+                                                  @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String normalizedMode = normalizeMode(mode);
+        return cachedResponse("prices:" + normalizedMode, normalizedMode, ifNoneMatch,
+                () -> priceService.getPriceHistory(normalizedMode));
     }
 
     @GetMapping("/portfolio")
-    public ResponseEntity<List<Map<String, Object>>> getPortfolio(@RequestParam String mode) {
-        return ResponseEntity.ok(portfolioService.getPortfolio(mode.toUpperCase()));
+    public ResponseEntity<byte[]> getPortfolio(@RequestParam String mode,
+                                               @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String normalizedMode = normalizeMode(mode);
+        return cachedResponse("portfolio:" + normalizedMode, normalizedMode, ifNoneMatch,
+                () -> portfolioService.getPortfolio(normalizedMode));
+    }
+
+    @GetMapping("/export/prices")
+    public ResponseEntity<StreamingResponseBody> exportPriceHistory(@RequestParam String mode) {
+        String normalizedMode = normalizeMode(mode);
+        StreamingResponseBody body = out -> historyTransferService.exportPriceHistory(normalizedMode, out);
+        return exportResponse("price_history", normalizedMode, body);
+    }
+
+    @GetMapping("/export/trades")
+    public ResponseEntity<StreamingResponseBody> exportTrades(@RequestParam String mode) {
+        String normalizedMode = normalizeMode(mode);
+        StreamingResponseBody body = out -> historyTransferService.exportTrades(normalizedMode, out);
+        return exportResponse("trades", normalizedMode, body);
+    }
+
+    @PostMapping(value = "/import/prices", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<Map<String, Object>> importPriceHistory(InputStream body) throws IOException {
+        int imported = historyTransferService.importPriceHistory(body);
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", "success");
+        response.put("imported", imported);
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping(value = "/import/trades", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<Map<String, Object>> importTrades(InputStream body) throws IOException {
+        int imported = historyTransferService.importTrades(body);
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", "success");
+        response.put("imported", imported);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/evaluation")
+    public ResponseEntity<StreamingResponseBody> runEvaluation(@RequestParam String mode,
+                                                               @RequestParam(defaultValue = "1000") int paths,
+                                                               @RequestParam(defaultValue = "5") int folds,
+                                                               @RequestParam(required = false) Long seed) {
+        String normalizedMode = normalizeMode(mode);
+        // Reject bad parameters (400) or a full house (429) here; once the body streams the status is already sent
+        EvaluationService.Slot slot = evaluationService.reserve(normalizedMode, paths, folds)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, "Too many evaluations running, try again later"));
+        long runSeed = seed != null ? seed : System.currentTimeMillis();
+        StreamingResponseBody body = out -> {
+            try (slot) {
+                evaluationService.streamEvaluation(normalizedMode, paths, folds, runSeed, out);
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
     }
 
     @GetMapping("/health")
@@ -82,4 +165,49 @@ public class TradingBotController {
         response.put("status", "UP");
         return ResponseEntity.ok(response);
     }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, Object>> handleBadRequest(IllegalArgumentException e) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", "error");
+        response.put("message", e.getMessage());
+        return ResponseEntity.badRequest().body(response);
+    }
+
+    // Only the two known modes are accepted; they also key the response cache, so anything
+    // else must not reach it
+    private static String normalizeMode(String mode) {
+        String normalizedMode = mode.toUpperCase();
+        if (!MODES.contains(normalizedMode)) {
+            throw new IllegalArgumentException("mode must be one of " + MODES);
+        }
+        return normalizedMode;
+    }
+
+    // Answer 304 straight from the version stamp when the client is up to date, otherwise
+    // serve the pre-serialized body (loading it from the database only after a tick or trade)
+    private ResponseEntity<byte[]> cachedResponse(String key, String scope, String ifNoneMatch, Supplier<?> loader) {
+        String etag = responseCacheService.currentEtag(scope);
+        if (responseCacheService.matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(CacheControl.noCache())
+                    .build();
+        }
+
+        ResponseCacheService.CachedResponse cached = responseCacheService.get(key, scope, loader);
+        return ResponseEntity.ok()
+                .eTag(cached.etag())
+                .cacheControl(CacheControl.noCache())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(cached.body());
+    }
+
+    private ResponseEntity<StreamingResponseBody> exportResponse(String table, String mode, StreamingResponseBody body) {
+        String filename = table + "_" + mode.toLowerCase() + ".bin.gz";
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .body(body);
+    }
 }
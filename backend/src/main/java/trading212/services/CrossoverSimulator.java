@@ -0,0 +1,96 @@
+package trading212.services;
+
+// In-memory replay of TradingBotService.evaluateAndTrade for one price path.
+// Only the last longMaPeriod prices are kept (ring buffer with running sums), so memory
+// per path is O(longMaPeriod) regardless of how many prices are fed through it.
+final class CrossoverSimulator {
+    static final double INITIAL_BALANCE = 10000.0;
+    private static final double MIN_QUANTITY = 0.00001;
+
+    private final int shortMaPeriod;
+    private final int longMaPeriod;
+    private final double tradePercentage;
+    private final double[] window;
+
+    private int head = 0;
+    private long count = 0;
+    private double shortSum = 0;
+    private double longSum = 0;
+
+    private double balance = INITIAL_BALANCE;
+    private double position = 0;
+    private double lastPrice = 0;
+    private double peakEquity = INITIAL_BALANCE;
+    private double maxDrawdown = 0;
+    private int trades = 0;
+
+    CrossoverSimulator(int shortMaPeriod, int longMaPeriod, double tradePercentage) {
+        if (shortMaPeriod <= 0 || shortMaPeriod > longMaPeriod) {
+            throw new IllegalArgumentException("Short MA period must be between 1 and the long MA period");
+        }
+        this.shortMaPeriod = shortMaPeriod;
+        this.longMaPeriod = longMaPeriod;
+        this.tradePercentage = tradePercentage;
+        this.window = new double[longMaPeriod];
+    }
+
+    // Feed the next price; trades once past the same warm-up as training mode
+    void step(double price) {
+        if (count >= shortMaPeriod) {
+            shortSum -= window[(head - shortMaPeriod + longMaPeriod) % longMaPeriod];
+        }
+        if (count >= longMaPeriod) {
+            longSum -= window[head];
+        }
+
+        window[head] = price;
+        head = (head + 1) % longMaPeriod;
+        shortSum += price;
+        longSum += price;
+        count++;
+        lastPrice = price;
+
+        // Same warm-up as training mode, which evaluates the i-th price (0-based) once i > longMaPeriod
+        if (count > longMaPeriod + 1) {
+            evaluate(price);
+        }
+    }
+
+    private void evaluate(double price) {
+        double shortMA = shortSum / shortMaPeriod;
+        double longMA = longSum / longMaPeriod;
+
+        // Buy signal
+        if (shortMA > longMA && position == 0) {
+            double quantity = balance * tradePercentage / price;
+            if (quantity > MIN_QUANTITY) {
+                balance -= quantity * price;
+                position = quantity;
+                trades++;
+            }
+        }
+        // Sell signal
+        else if (shortMA < longMA && position > 0) {
+            balance += position * price;
+            position = 0;
+            trades++;
+        }
+
+        double equity = balance + position * price;
+        peakEquity = Math.max(peakEquity, equity);
+        maxDrawdown = Math.max(maxDrawdown, (peakEquity - equity) / peakEquity);
+    }
+
+    double profitLoss() {
+        return balance + position * lastPrice - INITIAL_BALANCE;
+    }
+
+    // Largest peak-to-trough equity drop as a fraction of the peak
+    double maxDrawdown() {
+        return maxDrawdown;
+    }
+
+    int trades() {
+        return trades;
+    }
+}
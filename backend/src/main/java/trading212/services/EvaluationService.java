@@ -0,0 +1,306 @@
+package trading212.services;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@Service
+public class EvaluationService {
+    static final int MAX_PATHS = 100_000;
+    static final int MAX_FOLDS = 100;
+
+    // Paths a single fork/join task runs before it stops splitting
+    private static final int PATHS_PER_TASK = 16;
+
+    private static final String HISTORY_SQL =
+        "SELECT price FROM price_history WHERE symbol = ? AND mode = ? ORDER BY timestamp";
+    private static final String HISTORY_SIZE_SQL =
+        "SELECT COUNT(*) FROM price_history WHERE symbol = ? AND mode = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final ForkJoinPool evaluationPool;
+
+    // Evaluations allowed to run at once; each one keeps the shared pool busy for its whole run
+    private final Semaphore slots;
+
+    // Global variables subject to change
+    @Value("${trading.bot.symbol:BTC}")
+    protected String symbol;
+
+    @Value("${trading.parameters.short-ma-period}")
+    protected int shortMaPeriod;
+
+    @Value("${trading.parameters.long-ma-period}")
+    protected int longMaPeriod;
+
+    @Value("${trading.parameters.trade-percentage}")
+    protected BigDecimal tradePercentage;
+
+    @Value("${trading.export.fetch-size:1000}")
+    protected int fetchSize;
+
+    // Consecutive returns drawn together when resampling, to keep some of the series' autocorrelation
+    @Value("${trading.evaluation.block-size:20}")
+    protected int blockSize;
+
+    public EvaluationService(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper, ForkJoinPool evaluationPool,
+                             @Value("${trading.evaluation.max-concurrent:2}") int maxConcurrent) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.evaluationPool = evaluationPool;
+        this.slots = new Semaphore(Math.max(maxConcurrent, 1));
+    }
+
+    // Run the evaluation and write one JSON line per path followed by a summary line
+    public void streamEvaluation(String mode, int paths, int folds, long seed, OutputStream target) throws IOException {
+        OutputStream out = new BufferedOutputStream(target);
+        Consumer<Map<String, Object>> sink = result -> {
+            synchronized (out) {
+                writeLine(out, result);
+            }
+        };
+
+        Map<String, Object> summary = evaluate(mode, paths, folds, seed, sink);
+        synchronized (out) {
+            writeLine(out, summary);
+            out.flush();
+        }
+    }
+
+    // Cheap up-front check of the request against the stored history size, so callers can
+    // reject it before they start streaming a response
+    public void validate(String mode, int paths, int folds) {
+        checkRanges(paths, folds);
+        Integer historySize = jdbcTemplate.queryForObject(HISTORY_SIZE_SQL, Integer.class, symbol, mode);
+        checkHistory(mode, historySize != null ? historySize : 0, folds);
+    }
+
+    // Validate like validate() and take one of the evaluation slots; empty when they are all busy.
+    // The caller closes the slot once the evaluation has streamed.
+    public Optional<Slot> reserve(String mode, int paths, int folds) {
+        validate(mode, paths, folds);
+        return slots.tryAcquire() ? Optional.of(new Slot(slots)) : Optional.empty();
+    }
+
+    // Walk-forward over stored history split into `folds` consecutive windows, plus `paths`
+    // block-bootstrap resamples of its returns. Per-path results go to the sink as they finish
+    // (from pool threads); only the final PnL and drawdown of each path are kept for the percentiles.
+    public Map<String, Object> evaluate(String mode, int paths, int folds, long seed, Consumer<Map<String, Object>> sink) {
+        checkRanges(paths, folds);
+
+        double[] prices = loadPrices(mode);
+        checkHistory(mode, prices.length, folds);
+        double[] returns = logReturns(prices);
+        double percentage = tradePercentage.doubleValue();
+
+        double[] foldPnl = new double[folds];
+        double[] foldDrawdown = new double[folds];
+        double[] pathPnl = new double[paths];
+        double[] pathDrawdown = new double[paths];
+
+        evaluationPool.invoke(new RangeTask(0, folds, fold -> {
+            int from = (int) ((long) prices.length * fold / folds);
+            int to = (int) ((long) prices.length * (fold + 1) / folds);
+
+            CrossoverSimulator simulator = new CrossoverSimulator(shortMaPeriod, longMaPeriod, percentage);
+            for (int i = from; i < to; i++) {
+                simulator.step(prices[i]);
+            }
+            foldPnl[fold] = simulator.profitLoss();
+            foldDrawdown[fold] = simulator.maxDrawdown();
+            sink.accept(pathResult("WALK_FORWARD", fold, simulator));
+        }));
+
+        evaluationPool.invoke(new RangeTask(0, paths, path -> {
+            SplittableRandom random = new SplittableRandom(seed + path);
+            CrossoverSimulator simulator = new CrossoverSimulator(shortMaPeriod, longMaPeriod, percentage);
+
+            // Prices are generated on the fly; nothing path-sized is allocated
+            double price = prices[0];
+            int cursor = 0;
+            simulator.step(price);
+            for (int step = 0; step < returns.length; step++) {
+                if (step % blockSize == 0) {
+                    cursor = random.nextInt(returns.length);
+                }
+                price *= Math.exp(returns[cursor]);
+                cursor = (cursor + 1) % returns.length;
+                simulator.step(price);
+            }
+            pathPnl[path] = simulator.profitLoss();
+            pathDrawdown[path] = simulator.maxDrawdown();
+            sink.accept(pathResult("MONTE_CARLO", path, simulator));
+        }));
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("type", "SUMMARY");
+        summary.put("mode", mode);
+        summary.put("history_size", prices.length);
+        summary.put("short_ma_period", shortMaPeriod);
+        summary.put("long_ma_period", longMaPeriod);
+        summary.put("seed", seed);
+        summary.put("walk_forward", distribution(foldPnl, foldDrawdown));
+        summary.put("monte_carlo", distribution(pathPnl, pathDrawdown));
+        return summary;
+    }
+
+    private static void checkRanges(int paths, int folds) {
+        if (paths < 0 || paths > MAX_PATHS) {
+            throw new IllegalArgumentException("paths must be between 0 and " + MAX_PATHS);
+        }
+        if (folds < 0 || folds > MAX_FOLDS) {
+            throw new IllegalArgumentException("folds must be between 0 and " + MAX_FOLDS);
+        }
+    }
+
+    // The simulator only trades after longMaPeriod + 1 prices, so shorter histories (or folds)
+    // would never leave warm-up and report a flat 0 PnL that skews the percentiles
+    private void checkHistory(String mode, int historySize, int folds) {
+        int minimumSize = longMaPeriod + 2;
+        if (historySize < minimumSize) {
+            throw new IllegalArgumentException("Not enough " + mode + " price history to evaluate: " +
+                historySize + " prices, need at least " + minimumSize);
+        }
+        if (folds > 0 && historySize / folds < minimumSize) {
+            throw new IllegalArgumentException("folds must be at most " + historySize / minimumSize +
+                " so every fold has at least " + minimumSize + " of the " + historySize + " " + mode + " prices");
+        }
+    }
+
+    // Load the stored prices in timestamp order as a primitive array
+    private double[] loadPrices(String mode) {
+        double[][] buffer = { new double[1024] };
+        int[] size = { 0 };
+
+        RowCallbackHandler handler = rs -> {
+            if (size[0] == buffer[0].length) {
+                buffer[0] = Arrays.copyOf(buffer[0], size[0] * 2);
+            }
+            buffer[0][size[0]++] = rs.getDouble("price");
+        };
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(HISTORY_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            ps.setString(1, symbol);
+            ps.setString(2, mode);
+            return ps;
+        }, handler);
+
+        return Arrays.copyOf(buffer[0], size[0]);
+    }
+
+    private static double[] logReturns(double[] prices) {
+        double[] returns = new double[prices.length - 1];
+        for (int i = 1; i < prices.length; i++) {
+            returns[i - 1] = Math.log(prices[i] / prices[i - 1]);
+        }
+        return returns;
+    }
+
+    private static Map<String, Object> pathResult(String type, int index, CrossoverSimulator simulator) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("type", type);
+        result.put("path", index);
+        result.put("pnl", simulator.profitLoss());
+        result.put("max_drawdown", simulator.maxDrawdown());
+        result.put("trades", simulator.trades());
+        return result;
+    }
+
+    // Mean and nearest-rank percentiles of PnL and drawdown
+    private static Map<String, Object> distribution(double[] pnl, double[] drawdown) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("count", pnl.length);
+        if (pnl.length == 0) return result;
+
+        result.put("mean_pnl", Arrays.stream(pnl).average().orElse(0));
+        result.put("pnl", percentiles(pnl));
+        result.put("max_drawdown", percentiles(drawdown));
+        return result;
+    }
+
+    private static Map<String, Object> percentiles(double[] values) {
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        for (int p : new int[] {5, 25, 50, 75, 95}) {
+            int rank = (int) Math.ceil(p / 100.0 * sorted.length);
+            result.put("p" + p, sorted[Math.max(rank, 1) - 1]);
+        }
+        return result;
+    }
+
+    private void writeLine(OutputStream out, Map<String, Object> value) {
+        try {
+            out.write(objectMapper.writeValueAsBytes(value));
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // One running evaluation; closing it more than once releases the slot only once
+    public static final class Slot implements AutoCloseable {
+        private final Semaphore slots;
+        private final AtomicBoolean released = new AtomicBoolean(false);
+
+        Slot(Semaphore slots) {
+            this.slots = slots;
+        }
+
+        @Override
+        public void close() {
+            if (released.compareAndSet(false, true)) {
+                slots.release();
+            }
+        }
+    }
+
+    // Splits [from, to) in halves until it is small enough to run directly; idle workers steal the other halves
+    private static final class RangeTask extends RecursiveAction {
+        private final int from;
+        private final int to;
+        private final IntConsumer body;
+
+        RangeTask(int from, int to, IntConsumer body) {
+            this.from = from;
+            this.to = to;
+            this.body = body;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= PATHS_PER_TASK) {
+                for (int i = from; i < to; i++) {
+                    body.accept(i);
+                }
+                return;
+            }
+
+            int mid = (from + to) >>> 1;
+            invokeAll(new RangeTask(from, mid, body), new RangeTask(mid, to, body));
+        }
+    }
+}
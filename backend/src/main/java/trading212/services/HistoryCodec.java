@@ -0,0 +1,94 @@
+package trading212.services;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+// Binary layout shared by the bulk export and import of price_history and trades.
+// Every stream is gzip'd and starts with: magic (int), version (byte), symbol (UTF), mode (UTF).
+// Each row is prefixed with a 'true' marker and the stream ends with a single 'false'.
+// Nullable columns carry their own presence flag so NULL survives the round trip.
+// Timestamps and prices are written as zigzag varint deltas from the previous row, so a
+// slowly moving series costs a couple of bytes per value before compression.
+final class HistoryCodec {
+    static final int PRICE_MAGIC = 0x54425048; // "TBPH"
+    static final int TRADE_MAGIC = 0x54425454; // "TBTT"
+    static final byte VERSION = 2;
+
+    // Matches the DECIMAL(20, 8) columns in db/migration/V1__initial_schema.sql
+    static final int SCALE = 8;
+
+    private HistoryCodec() {
+    }
+
+    static void writeHeader(DataOutput out, int magic, String symbol, String mode) throws IOException {
+        out.writeInt(magic);
+        out.writeByte(VERSION);
+        out.writeUTF(symbol);
+        out.writeUTF(mode);
+    }
+
+    // Validate magic and version; the caller reads symbol and mode (readMode) afterwards
+    static void readHeader(DataInput in, int magic) throws IOException {
+        if (in.readInt() != magic) {
+            throw new IllegalArgumentException("Unrecognised export format");
+        }
+        byte version = in.readByte();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported export version: " + version);
+        }
+    }
+
+    // Imported rows land in (and invalidate the cache of) this mode, so reject anything unknown
+    static String readMode(DataInput in) throws IOException {
+        String mode = in.readUTF();
+        if (!"TRAINING".equals(mode) && !"TRADING".equals(mode)) {
+            throw new IllegalArgumentException("Unsupported mode in export stream: " + mode);
+        }
+        return mode;
+    }
+
+    // DECIMAL(20, 8) value as a fixed-point long; NOT NULL columns only
+    static long toUnscaled(BigDecimal value) {
+        return value.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    static BigDecimal fromUnscaled(long value) {
+        return BigDecimal.valueOf(value, SCALE);
+    }
+
+    static void writeNullableDecimal(DataOutput out, BigDecimal value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            writeVarLong(out, toUnscaled(value));
+        }
+    }
+
+    static BigDecimal readNullableDecimal(DataInput in) throws IOException {
+        return in.readBoolean() ? fromUnscaled(readVarLong(in)) : null;
+    }
+
+    // Zigzag + LEB128 so small negative deltas stay small
+    static void writeVarLong(DataOutput out, long value) throws IOException {
+        long zigzag = (value << 1) ^ (value >> 63);
+        while ((zigzag & ~0x7FL) != 0) {
+            out.writeByte((int) ((zigzag & 0x7F) | 0x80));
+            zigzag >>>= 7;
+        }
+        out.writeByte((int) zigzag);
+    }
+
+    static long readVarLong(DataInput in) throws IOException {
+        long zigzag = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            zigzag |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return (zigzag >>> 1) ^ -(zigzag & 1);
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint in export stream");
+    }
+}
@@ -0,0 +1,221 @@
+package trading212.services;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+@Service
+public class HistoryTransferService {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final String PRICE_EXPORT_SQL =
+        "SELECT price, timestamp FROM price_history WHERE symbol = ? AND mode = ? ORDER BY timestamp";
+    private static final String TRADE_EXPORT_SQL =
+        "SELECT trade_type, quantity, price, total_value, profit_loss, timestamp FROM trades " +
+        "WHERE account_id = 1 AND symbol = ? AND mode = ? ORDER BY timestamp, id";
+
+    private static final String PRICE_IMPORT_SQL =
+        "INSERT INTO price_history (symbol, price, mode, timestamp) VALUES (?, ?, ?, ?) " +
+        "ON DUPLICATE KEY UPDATE price = VALUES(price)";
+    // trades has no natural key, so a trade counts as already imported when the same
+    // (mode, timestamp, symbol, trade_type, quantity, price) exists; the lookup uses
+    // idx_trades_account_mode_timestamp and makes re-running an import a no-op
+    private static final String TRADE_IMPORT_SQL =
+        "INSERT INTO trades (account_id, symbol, trade_type, quantity, price, total_value, profit_loss, timestamp, mode) " +
+        "SELECT 1, ?, ?, ?, ?, ?, ?, ?, ? FROM DUAL WHERE NOT EXISTS (" +
+        "SELECT 1 FROM trades WHERE account_id = 1 AND mode = ? AND timestamp = ? " +
+        "AND symbol = ? AND trade_type = ? AND quantity = ? AND price = ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ResponseCacheService responseCacheService;
+
+    // Global variables
+    @Value("${trading.bot.symbol:BTC}")
+    protected String symbol;
+
+    // Rows the driver pulls per round trip while exporting (needs useCursorFetch=true on MySQL)
+    @Value("${trading.export.fetch-size:1000}")
+    protected int fetchSize;
+
+    // Rows sent per batched INSERT while importing
+    @Value("${trading.import.batch-size:1000}")
+    protected int batchSize;
+
+    HistoryTransferService(JdbcTemplate jdbcTemplate, ResponseCacheService responseCacheService) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.responseCacheService = responseCacheService;
+    }
+
+    // Stream the asset's whole price history for the given mode without holding it in memory
+    public void exportPriceHistory(String mode, OutputStream target) throws IOException {
+        GZIPOutputStream gzip = new GZIPOutputStream(target, BUFFER_SIZE);
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(gzip, BUFFER_SIZE));
+        HistoryCodec.writeHeader(out, HistoryCodec.PRICE_MAGIC, symbol, mode);
+
+        long[] previous = new long[2]; // timestamp, price
+        RowCallbackHandler handler = rs -> {
+            long timestamp = rs.getTimestamp("timestamp").getTime();
+            long price = HistoryCodec.toUnscaled(rs.getBigDecimal("price"));
+            try {
+                out.writeBoolean(true);
+                HistoryCodec.writeVarLong(out, timestamp - previous[0]);
+                HistoryCodec.writeVarLong(out, price - previous[1]);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            previous[0] = timestamp;
+            previous[1] = price;
+        };
+        jdbcTemplate.query(streamingStatement(PRICE_EXPORT_SQL, mode), handler);
+
+        out.writeBoolean(false);
+        out.flush();
+        gzip.finish();
+    }
+
+    // Stream all of the account's trades in the asset for the given mode
+    public void exportTrades(String mode, OutputStream target) throws IOException {
+        GZIPOutputStream gzip = new GZIPOutputStream(target, BUFFER_SIZE);
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(gzip, BUFFER_SIZE));
+        HistoryCodec.writeHeader(out, HistoryCodec.TRADE_MAGIC, symbol, mode);
+
+        long[] previous = new long[2]; // timestamp, price
+        RowCallbackHandler handler = rs -> {
+            long timestamp = rs.getTimestamp("timestamp").getTime();
+            long price = HistoryCodec.toUnscaled(rs.getBigDecimal("price"));
+            try {
+                out.writeBoolean(true);
+                out.writeBoolean("BUY".equals(rs.getString("trade_type")));
+                HistoryCodec.writeVarLong(out, timestamp - previous[0]);
+                HistoryCodec.writeVarLong(out, price - previous[1]);
+                HistoryCodec.writeVarLong(out, HistoryCodec.toUnscaled(rs.getBigDecimal("quantity")));
+                HistoryCodec.writeVarLong(out, HistoryCodec.toUnscaled(rs.getBigDecimal("total_value")));
+                HistoryCodec.writeNullableDecimal(out, rs.getBigDecimal("profit_loss"));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            previous[0] = timestamp;
+            previous[1] = price;
+        };
+        jdbcTemplate.query(streamingStatement(TRADE_EXPORT_SQL, mode), handler);
+
+        out.writeBoolean(false);
+        out.flush();
+        gzip.finish();
+    }
+
+    // Load a price history export using batched inserts; returns the number of rows read
+    public int importPriceHistory(InputStream source) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(source, BUFFER_SIZE), BUFFER_SIZE));
+        HistoryCodec.readHeader(in, HistoryCodec.PRICE_MAGIC);
+        String exportSymbol = in.readUTF();
+        String mode = HistoryCodec.readMode(in);
+
+        List<Object[]> batch = new ArrayList<>(batchSize);
+        long timestamp = 0;
+        long price = 0;
+        int imported = 0;
+
+        while (in.readBoolean()) {
+            timestamp += HistoryCodec.readVarLong(in);
+            price += HistoryCodec.readVarLong(in);
+            batch.add(new Object[] {exportSymbol, HistoryCodec.fromUnscaled(price), mode, new Timestamp(timestamp)});
+
+            if (batch.size() >= batchSize) {
+                imported += flushBatch(PRICE_IMPORT_SQL, batch);
+            }
+        }
+
+        imported += flushBatch(PRICE_IMPORT_SQL, batch);
+        responseCacheService.invalidate(mode);
+        return imported;
+    }
+
+    // Load a trades export into account 1 using batched inserts, skipping trades that are
+    // already present; returns the number of trades inserted
+    public int importTrades(InputStream source) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(source, BUFFER_SIZE), BUFFER_SIZE));
+        HistoryCodec.readHeader(in, HistoryCodec.TRADE_MAGIC);
+        String exportSymbol = in.readUTF();
+        String mode = HistoryCodec.readMode(in);
+
+        List<Object[]> batch = new ArrayList<>(batchSize);
+        long timestamp = 0;
+        long price = 0;
+        int imported = 0;
+
+        while (in.readBoolean()) {
+            String tradeType = in.readBoolean() ? "BUY" : "SELL";
+            timestamp += HistoryCodec.readVarLong(in);
+            price += HistoryCodec.readVarLong(in);
+            BigDecimal quantity = HistoryCodec.fromUnscaled(HistoryCodec.readVarLong(in));
+            BigDecimal totalValue = HistoryCodec.fromUnscaled(HistoryCodec.readVarLong(in));
+            BigDecimal profitLoss = HistoryCodec.readNullableDecimal(in);
+            BigDecimal tradePrice = HistoryCodec.fromUnscaled(price);
+            Timestamp tradeTime = new Timestamp(timestamp);
+            batch.add(new Object[] {
+                exportSymbol, tradeType, quantity, tradePrice, totalValue, profitLoss, tradeTime, mode,
+                mode, tradeTime, exportSymbol, tradeType, quantity, tradePrice
+            });
+
+            if (batch.size() >= batchSize) {
+                imported += flushNewRows(TRADE_IMPORT_SQL, batch);
+            }
+        }
+
+        imported += flushNewRows(TRADE_IMPORT_SQL, batch);
+        responseCacheService.invalidate(mode);
+        return imported;
+    }
+
+    // Forward-only, read-only cursor so the driver fetches rows in chunks instead of all at once
+    private PreparedStatementCreator streamingStatement(String sql, String mode) {
+        return con -> {
+            PreparedStatement ps = con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            ps.setString(1, symbol);
+            ps.setString(2, mode);
+            return ps;
+        };
+    }
+
+    private int flushBatch(String sql, List<Object[]> batch) {
+        if (batch.isEmpty()) return 0;
+
+        int size = batch.size();
+        jdbcTemplate.batchUpdate(sql, batch);
+        batch.clear();
+        return size;
+    }
+
+    // Like flushBatch, but counts only the rows the database actually inserted
+    private int flushNewRows(String sql, List<Object[]> batch) {
+        if (batch.isEmpty()) return 0;
+
+        int inserted = 0;
+        for (int count : jdbcTemplate.batchUpdate(sql, batch)) {
+            if (count > 0 || count == Statement.SUCCESS_NO_INFO) inserted++;
+        }
+        batch.clear();
+        return inserted;
+    }
+}
@@ -0,0 +1,107 @@
+package trading212.services;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+// Keeps the TRADING day partitions created by the V2 migration rolling: splits upcoming days out
+// of p_future and, only when a retention is configured, drops whole expired days. Days are UTC,
+// like the stored timestamps.
+@Service
+public class PartitionMaintenanceService {
+    static final List<String> PARTITIONED_TABLES = List.of("price_history");
+    static final String FUTURE_PARTITION = "p_future";
+
+    // pYYYYMMDD holds every TRADING row before the start of the following day
+    private static final DateTimeFormatter PARTITION_NAME = DateTimeFormatter.ofPattern("'p'yyyyMMdd");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ResponseCacheService responseCacheService;
+
+    @Value("${trading.partitions.enabled:true}")
+    protected boolean enabled;
+
+    @Value("${trading.partitions.days-ahead:7}")
+    protected int daysAhead;
+
+    // Opt-in: 0 keeps all history. Otherwise whole TRADING days older than this are deleted,
+    // including imported ones and the history evaluations run over
+    @Value("${trading.partitions.retention-days:0}")
+    protected int retentionDays;
+
+    PartitionMaintenanceService(JdbcTemplate jdbcTemplate, ResponseCacheService responseCacheService) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.responseCacheService = responseCacheService;
+    }
+
+    // Run once on startup and then shortly after every UTC midnight
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${trading.partitions.cron:0 5 0 * * *}", zone = "UTC")
+    public void maintainPartitions() {
+        if (!enabled) return;
+
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        for (String table : PARTITIONED_TABLES) {
+            try {
+                maintainPartitions(table, today);
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    void maintainPartitions(String table, LocalDate today) {
+        List<String> names = jdbcTemplate.queryForList(
+            "SELECT PARTITION_NAME FROM information_schema.PARTITIONS " +
+            "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND PARTITION_NAME IS NOT NULL " +
+            "ORDER BY PARTITION_ORDINAL_POSITION",
+            String.class, table
+        );
+
+        List<LocalDate> days = names.stream()
+            .filter(name -> name.matches("p\\d{8}"))
+            .map(name -> LocalDate.parse(name, PARTITION_NAME))
+            .toList();
+
+        // Not partitioned by day (e.g. migrations not applied yet)
+        if (days.isEmpty() || !names.contains(FUTURE_PARTITION)) return;
+
+        // Split the upcoming days out of p_future in a single statement. TRADING rows are never
+        // future-dated (TRAINING rows live in p_training), so p_future is normally empty and cheap to split
+        List<String> upcoming = new ArrayList<>();
+        for (LocalDate day = Collections.max(days).plusDays(1); !day.isAfter(today.plusDays(Math.max(daysAhead, 0))); day = day.plusDays(1)) {
+            upcoming.add("PARTITION " + day.format(PARTITION_NAME) +
+                " VALUES LESS THAN ('TRADING', '" + day.plusDays(1) + " 00:00:00')");
+        }
+        if (!upcoming.isEmpty()) {
+            jdbcTemplate.execute(
+                "ALTER TABLE " + table + " REORGANIZE PARTITION " + FUTURE_PARTITION + " INTO (" +
+                String.join(", ", upcoming) + ", PARTITION " + FUTURE_PARTITION + " VALUES LESS THAN ('TRADING', MAXVALUE))"
+            );
+        }
+
+        // Dropping a partition discards its rows without a row-by-row DELETE
+        if (retentionDays > 0) {
+            LocalDate cutoff = today.minusDays(retentionDays);
+            List<String> expired = days.stream()
+                .filter(day -> day.isBefore(cutoff))
+                .map(day -> day.format(PARTITION_NAME))
+                .toList();
+
+            if (!expired.isEmpty()) {
+                jdbcTemplate.execute("ALTER TABLE " + table + " DROP PARTITION " + String.join(", ", expired));
+                // Cached TRADING prices and account values may include the dropped rows
+                responseCacheService.invalidate("TRADING");
+            }
+        }
+    }
+}
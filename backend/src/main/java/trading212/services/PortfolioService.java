@@ -10,6 +10,51 @@ import java.util.Map;
 
 @Service
 public class PortfolioService {
+    // Hot queries, shared with the query plan tests
+    // Portfolio value using latest prices for each symbol
+    // (correlated subquery: one PRIMARY KEY probe per held symbol)
+    static final String PORTFOLIO_VALUE_SQL = """
+        SELECT COALESCE(SUM(p.quantity * (
+            SELECT ph.price
+            FROM price_history ph
+            WHERE ph.symbol = p.symbol AND ph.mode = ?
+            ORDER BY ph.timestamp DESC
+            LIMIT 1
+        )), 0) AS portfolio_value
+        FROM portfolio p
+        WHERE p.account_id = 1 AND p.mode = ?
+        """;
+
+    static final String TRADE_HISTORY_SQL =
+        "SELECT * FROM trades WHERE account_id = 1 AND mode = ? ORDER BY timestamp DESC LIMIT 100";
+
+    // Portfolio rows joined with the latest price of each symbol
+    static final String PORTFOLIO_SQL = """
+        WITH latest_prices AS (
+            SELECT ph1.symbol, ph1.price
+            FROM price_history ph1
+            JOIN (
+                SELECT symbol, MAX(timestamp) AS latest
+                FROM price_history
+                WHERE mode = ?
+                GROUP BY symbol
+            ) ph2
+            ON ph1.symbol = ph2.symbol 
+            AND ph1.timestamp = ph2.latest
+            AND ph1.mode = ?
+        )
+        SELECT 
+            p.*,
+            lp.price AS current_price,
+            (p.quantity * lp.price) AS current_value,
+            ((lp.price - p.average_buy_price) * p.quantity) AS unrealized_pnl
+        FROM portfolio p
+        JOIN latest_prices lp
+        ON p.symbol = lp.symbol
+        WHERE p.account_id = 1
+        AND p.mode = ?
+        """;
+
     private final JdbcTemplate jdbcTemplate;
     
     PortfolioService(JdbcTemplate jdbcTemplate) {
@@ -108,20 +153,7 @@ public class PortfolioService {
         Map<String, Object> account = jdbcTemplate.queryForMap(accountSql, mode);
 
         // Calculate portfolio value using latest prices for each symbol
-        String portfolioSql = """
-            SELECT COALESCE(SUM(p.quantity * ph.price), 0) AS portfolio_value
-            FROM portfolio p
-            JOIN LATERAL (
-                SELECT price 
-                FROM price_history 
-                WHERE symbol = p.symbol AND mode = ?
-                ORDER BY timestamp DESC 
-                LIMIT 1
-            ) ph ON true
-            WHERE p.account_id = 1 AND p.mode = ?
-        """;
-
-        BigDecimal portfolioValue = jdbcTemplate.queryForObject(portfolioSql,BigDecimal.class, mode, mode);
+        BigDecimal portfolioValue = jdbcTemplate.queryForObject(PORTFOLIO_VALUE_SQL, BigDecimal.class, mode, mode);
 
         account.put("portfolio_value", portfolioValue);
         account.put("total_value", ((BigDecimal) account.get("balance")).add(portfolioValue));
@@ -131,39 +163,11 @@ public class PortfolioService {
     
     // Retrieve recent trades for the given mode, ordered by timestamp descending
     public List<Map<String, Object>> getTradeHistory(String mode) {
-        return jdbcTemplate.queryForList(
-            "SELECT * FROM trades WHERE account_id = 1 AND mode = ? ORDER BY timestamp DESC LIMIT 100", mode
-        );
+        return jdbcTemplate.queryForList(TRADE_HISTORY_SQL, mode);
     }
     
     // Get detailed portfolio info including current price, current value, and unrealized PnL
     public List<Map<String, Object>> getPortfolio(String mode) {
-        String sql = """
-            WITH latest_prices AS (
-                SELECT ph1.symbol, ph1.price
-                FROM price_history ph1
-                JOIN (
-                    SELECT symbol, MAX(timestamp) AS latest
-                    FROM price_history
-                    WHERE mode = ?
-                    GROUP BY symbol
-                ) ph2
-                ON ph1.symbol = ph2.symbol 
-                AND ph1.timestamp = ph2.latest
-                AND ph1.mode = ?
-            )
-            SELECT 
-                p.*,
-                lp.price AS current_price,
-                (p.quantity * lp.price) AS current_value,
-                ((lp.price - p.average_buy_price) * p.quantity) AS unrealized_pnl
-            FROM portfolio p
-            JOIN latest_prices lp
-            ON p.symbol = lp.symbol
-            WHERE p.account_id = 1
-            AND p.mode = ?;
-            """;
-
-        return jdbcTemplate.queryForList(sql, mode, mode, mode);
+        return jdbcTemplate.queryForList(PORTFOLIO_SQL, mode, mode, mode);
     }
 }
\ No newline at end of file
@@ -13,6 +13,12 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 
 @Service
 public class PriceService {
+    // Hot queries, shared with the query plan tests
+    static final String MOVING_AVERAGE_SQL =
+        "SELECT AVG(price) FROM (SELECT price FROM price_history WHERE symbol = ? AND mode = ? ORDER BY timestamp DESC LIMIT ?) AS recent_prices";
+    static final String PRICE_HISTORY_SQL =
+        "SELECT * FROM price_history WHERE symbol = ? AND mode = ? ORDER BY timestamp DESC LIMIT 200";
+
     private final JdbcTemplate jdbcTemplate;
     private final RestTemplate restTemplate = new RestTemplate();
     private final ObjectMapper objectMapper = new ObjectMapper();
@@ -47,9 +53,7 @@ public class PriceService {
 
     // Calculate the moving average
     public BigDecimal calculateMA(int period, String mode) {
-        String sql = "SELECT AVG(price) FROM (SELECT price FROM price_history WHERE symbol = ? AND mode = ? ORDER BY timestamp DESC LIMIT ?) AS recent_prices";
-        
-        return jdbcTemplate.queryForObject(sql, BigDecimal.class, symbol, mode, period);
+        return jdbcTemplate.queryForObject(MOVING_AVERAGE_SQL, BigDecimal.class, symbol, mode, period);
     }
 
     // Insert into the database a snapshot of the asset's price during a moment in time
@@ -75,9 +79,6 @@ public class PriceService {
 
     // Retrieve the asset's price history according to the bot's mode
     public List<Map<String, Object>> getPriceHistory(String mode) {
-        return jdbcTemplate.queryForList(
-            "SELECT * FROM price_history WHERE symbol = ? AND mode = ? ORDER BY timestamp DESC LIMIT 200",
-            symbol, mode
-        );
+        return jdbcTemplate.queryForList(PRICE_HISTORY_SQL, symbol, mode);
     }
 }
\ No newline at end of file
@@ -0,0 +1,89 @@
+package trading212.services;
+
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import org.springframework.stereotype.Service;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@Service
+public class ResponseCacheService {
+    // Scope for data that does not belong to a mode (bot_status)
+    public static final String STATUS_SCOPE = "STATUS";
+
+    private final ObjectMapper objectMapper;
+
+    // One version per scope (TRAINING, TRADING, STATUS); bumped whenever the underlying rows change
+    private final Map<String, AtomicLong> versions = new ConcurrentHashMap<>();
+    private final Map<String, CachedResponse> responses = new ConcurrentHashMap<>();
+
+    // Makes ETags handed out before a restart stale
+    private final String epoch = Long.toHexString(System.currentTimeMillis());
+
+    public ResponseCacheService(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    // Serialized JSON body together with the ETag of the version it was built from
+    public record CachedResponse(long version, String etag, byte[] body) {
+    }
+
+    // Mark every cached response in the given scope as stale
+    public void invalidate(String scope) {
+        versions.computeIfAbsent(scope, k -> new AtomicLong()).incrementAndGet();
+    }
+
+    public String currentEtag(String scope) {
+        return etag(scope, version(scope));
+    }
+
+    // Return the cached body for the key if it is still current, otherwise load and serialize it again.
+    // The version is read before loading, so a change that lands mid-load leaves the entry stale.
+    public CachedResponse get(String key, String scope, Supplier<?> loader) {
+        long version = version(scope);
+        CachedResponse cached = responses.get(key);
+        if (cached != null && cached.version() == version) {
+            return cached;
+        }
+
+        CachedResponse fresh = new CachedResponse(version, etag(scope, version), serialize(loader.get()));
+        responses.put(key, fresh);
+        return fresh;
+    }
+
+    // Check an If-None-Match header (possibly a list, weak tags or '*') against the given ETag
+    public boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) return false;
+
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if ("*".equals(tag) || etag.equals(tag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private long version(String scope) {
+        AtomicLong version = versions.get(scope);
+        return version == null ? 0L : version.get();
+    }
+
+    private String etag(String scope, long version) {
+        return "\"" + epoch + "-" + scope.toLowerCase() + "-" + version + "\"";
+    }
+
+    private byte[] serialize(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -21,6 +21,7 @@ public class TradingBotService {
     private final PriceService priceService;
     private final JdbcTemplate jdbcTemplate;
     private final TaskScheduler taskScheduler;
+    private final ResponseCacheService responseCacheService;
 
     // Schedulers for concurrent trades
     protected ScheduledFuture<?> tradingTask;
@@ -49,11 +50,13 @@ public class TradingBotService {
     protected BigDecimal tradePercentage;
 
     public TradingBotService(JdbcTemplate jdbcTemplate, PortfolioService portfolioService,
-                             PriceService priceService, TaskScheduler taskScheduler) {
+                             PriceService priceService, TaskScheduler taskScheduler,
+                             ResponseCacheService responseCacheService) {
         this.jdbcTemplate = jdbcTemplate;
         this.portfolioService = portfolioService;
         this.priceService = priceService;
         this.taskScheduler = taskScheduler;
+        this.responseCacheService = responseCacheService;
     }
 
     // Start bot in the selected mode
@@ -85,6 +88,8 @@ public class TradingBotService {
         stopBot();
         portfolioService.resetPortfolio();
         priceService.resetPriceHistory(symbol);
+        responseCacheService.invalidate("TRAINING");
+        responseCacheService.invalidate("TRADING");
         lastPrice = null;
         lastTimestamp = null;
         lastIndex = 0;
@@ -119,6 +124,7 @@ public class TradingBotService {
             if (currentPrice != null) {
                 Timestamp now = new Timestamp(System.currentTimeMillis());
                 priceService.savePriceHistory(symbol, currentPrice, "TRADING", now); // save them
+                responseCacheService.invalidate("TRADING");
                 evaluateAndTrade(currentPrice, "TRADING", LocalDateTime.now()); // decide if tradable
             }
         } catch (Exception e) {
@@ -140,6 +146,7 @@ public class TradingBotService {
 
         // Save new random price
         priceService.savePriceHistory(symbol, price, "TRAINING", Timestamp.valueOf(timestamp));
+        responseCacheService.invalidate("TRAINING");
 
         if (i > longMaPeriod) {
             evaluateAndTrade(price, "TRAINING", timestamp);
@@ -187,7 +194,7 @@ public class TradingBotService {
             portfolioService.upsertPortfolio(quantity, price, symbol, tradeType, mode);
         } else {
             profitLoss = portfolioService.calculateProfitLoss(quantity, price, symbol, mode);
-            portfolioService.upsertPortfolio(quantity, totalValue, symbol, tradeType, mode);
+            portfolioService.upsertPortfolio(quantity, price, symbol, tradeType, mode);
         }
 
         jdbcTemplate.update(
@@ -195,6 +202,7 @@ public class TradingBotService {
             "VALUES (1, ?, ?, ?, ?, ?, ?, ?, ?)",
             symbol, tradeType, quantity, price, totalValue, profitLoss, Timestamp.valueOf(timestamp), mode
         );
+        responseCacheService.invalidate(mode);
     }
 
     private void updateBotStatus(boolean running, String mode) {
@@ -202,6 +210,7 @@ public class TradingBotService {
             "UPDATE bot_status SET is_running = ?, mode = ?, last_run = ? WHERE id = 1",
             running, mode, running ? new Timestamp(System.currentTimeMillis()) : null
         );
+        responseCacheService.invalidate(ResponseCacheService.STATUS_SCOPE);
     }
 
     public Map<String, Object> getBotStatus() {
@@ -0,0 +1,48 @@
+-- Indexes matching the queries in PriceService, PortfolioService and HistoryTransferService,
+-- day partitions for price_history and ON UPDATE columns instead of triggers.
+
+-- Stored times are UTC wall-clock: the application connects with connectionTimeZone=UTC and
+-- forceConnectionTimeZoneToSession=true, and PartitionMaintenanceService names days in UTC.
+-- Converting the existing TIMESTAMP values below uses this session zone.
+SET time_zone = '+00:00';
+
+-- price_history: every query filters on symbol AND mode and orders by timestamp, so the old
+-- UNIQUE(symbol, mode, timestamp) becomes the clustered primary key. It also serves getPortfolio's
+-- GROUP BY symbol / MAX(timestamp) with a loose index scan, so no secondary index is needed.
+-- timestamp becomes DATETIME because RANGE COLUMNS partitioning does not accept TIMESTAMP.
+ALTER TABLE price_history
+    DROP INDEX symbol,
+    DROP INDEX idx_price_history_symbol_timestamp,
+    MODIFY timestamp DATETIME NOT NULL,
+    ADD PRIMARY KEY (symbol, mode, timestamp);
+
+-- trades: history and export filter on (account_id, mode) and order by timestamp.
+-- Trades are few and are the account's ledger, so they are indexed but never partitioned or expired.
+ALTER TABLE trades
+    DROP INDEX idx_trades_account_id,
+    DROP INDEX idx_trades_timestamp,
+    ADD INDEX idx_trades_account_mode_timestamp (account_id, mode, timestamp);
+
+-- portfolio: UNIQUE(account_id, symbol, mode) already covers account_id lookups
+DROP INDEX idx_portfolio_account_id ON portfolio;
+
+-- One partition per UTC day of TRADING prices. p20261019 holds everything up to and including
+-- 2026-10-19; PartitionMaintenanceService splits the following days out of p_future and drops
+-- days older than trading.partitions.retention-days instead of running large DELETEs.
+-- TRAINING prices are simulated with future timestamps, so they get their own partition
+-- ('TRADING' sorts before 'TRAINING') and never pass through p_future or the daily REORGANIZE.
+ALTER TABLE price_history
+    PARTITION BY RANGE COLUMNS (mode, timestamp) (
+        PARTITION p20261019 VALUES LESS THAN ('TRADING', '2026-10-20 00:00:00'),
+        PARTITION p_future VALUES LESS THAN ('TRADING', MAXVALUE),
+        PARTITION p_training VALUES LESS THAN (MAXVALUE, MAXVALUE)
+    );
+
+-- updated_at is maintained by the column definition rather than a trigger per row update
+DROP TRIGGER IF EXISTS update_account_updated_at;
+DROP TRIGGER IF EXISTS update_portfolio_updated_at;
+DROP TRIGGER IF EXISTS update_bot_status_updated_at;
+
+ALTER TABLE account MODIFY updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP;
+ALTER TABLE portfolio MODIFY updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP;
+ALTER TABLE bot_status MODIFY updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP;
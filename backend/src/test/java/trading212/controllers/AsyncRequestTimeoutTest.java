@@ -0,0 +1,156 @@
+package trading212.controllers;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcProperties;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import trading212.services.EvaluationService;
+import trading212.services.HistoryTransferService;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+// The streaming endpoints (export, evaluation) must not be cut off by Tomcat's 30 s default
+// async timeout. The configured bound is checked directly; the web stack runs with a 2 s timeout
+// to show that it is this property that ends a StreamingResponseBody, without sleeping 30 s.
+@SpringBootTest(
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = {
+        "spring.autoconfigure.exclude=" +
+            "org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration," +
+            "org.springframework.boot.autoconfigure.jdbc.DataSourceTransactionManagerAutoConfiguration," +
+            "org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration," +
+            "org.springframework.boot.autoconfigure.flyway.FlywayAutoConfiguration",
+        "trading.partitions.enabled=false",
+        "spring.mvc.async.request-timeout=2s"
+    }
+)
+class AsyncRequestTimeoutTest {
+
+    // Longest export or evaluation we expect to serve; must be well above Tomcat's 30 s default
+    private static final Duration MINIMUM_CONFIGURED_TIMEOUT = Duration.ofMinutes(30);
+
+    // Chunks written every half second under the 2 s test timeout
+    private static final long CHUNK_INTERVAL_MS = 500;
+
+    @LocalServerPort
+    private int port;
+
+    @MockitoBean
+    private JdbcTemplate jdbcTemplate;
+
+    @MockitoBean
+    private HistoryTransferService historyTransferService;
+
+    @MockitoBean
+    private EvaluationService evaluationService;
+
+    @Test
+    void testConfiguredTimeoutOutlivesContainerDefault() throws Exception {
+        Properties properties = PropertiesLoaderUtils.loadProperties(new ClassPathResource("application.properties"));
+        WebMvcProperties mvc = new Binder(new MapConfigurationPropertySource(properties))
+            .bind("spring.mvc", WebMvcProperties.class)
+            .orElseGet(WebMvcProperties::new);
+
+        Duration timeout = mvc.getAsync().getRequestTimeout();
+        assertNotNull(timeout, "spring.mvc.async.request-timeout is not set");
+        assertTrue(timeout.compareTo(MINIMUM_CONFIGURED_TIMEOUT) >= 0, "async request timeout is only " + timeout);
+    }
+
+    @Test
+    void testExportWithinTimeoutCompletes() throws Exception {
+        doAnswer(invocation -> {
+            writeChunks(invocation.getArgument(1), 2);
+            return null;
+        }).when(historyTransferService).exportPriceHistory(eq("TRADING"), any(OutputStream.class));
+
+        HttpResponse<byte[]> response = get("/api/export/prices?mode=TRADING");
+
+        assertEquals(200, response.statusCode());
+        assertEquals(2, response.body().length);
+    }
+
+    @Test
+    void testExportPastTimeoutIsCutOff() throws Exception {
+        doAnswer(invocation -> {
+            writeChunks(invocation.getArgument(1), 6);
+            return null;
+        }).when(historyTransferService).exportPriceHistory(eq("TRADING"), any(OutputStream.class));
+
+        assertCutOff("/api/export/prices?mode=TRADING", 6);
+    }
+
+    @Test
+    void testEvaluationWithinTimeoutCompletes() throws Exception {
+        doAnswer(invocation -> {
+            writeChunks(invocation.getArgument(4), 2);
+            return null;
+        }).when(evaluationService).streamEvaluation(eq("TRADING"), anyInt(), anyInt(), anyLong(), any(OutputStream.class));
+        when(evaluationService.reserve("TRADING", 10, 2)).thenReturn(Optional.of(mock(EvaluationService.Slot.class)));
+
+        HttpResponse<byte[]> response = get("/api/evaluation?mode=TRADING&paths=10&folds=2&seed=1");
+
+        assertEquals(200, response.statusCode());
+        assertEquals(2, response.body().length);
+    }
+
+    @Test
+    void testEvaluationPastTimeoutIsCutOff() throws Exception {
+        doAnswer(invocation -> {
+            writeChunks(invocation.getArgument(4), 6);
+            return null;
+        }).when(evaluationService).streamEvaluation(eq("TRADING"), anyInt(), anyInt(), anyLong(), any(OutputStream.class));
+        when(evaluationService.reserve("TRADING", 10, 2)).thenReturn(Optional.of(mock(EvaluationService.Slot.class)));
+
+        assertCutOff("/api/evaluation?mode=TRADING&paths=10&folds=2&seed=1", 6);
+    }
+
+    // Write `chunks` bytes, one every CHUNK_INTERVAL_MS, flushing each so the response is streaming
+    static void writeChunks(OutputStream out, int chunks) throws Exception {
+        for (int i = 0; i < chunks; i++) {
+            out.write('x');
+            out.flush();
+            Thread.sleep(CHUNK_INTERVAL_MS);
+        }
+    }
+
+    // The status is already sent when the timeout fires, so being cut off shows up as a short
+    // body or as the connection closing mid-stream
+    private void assertCutOff(String path, int chunks) throws Exception {
+        try {
+            HttpResponse<byte[]> response = get(path);
+            assertTrue(response.body().length < chunks,
+                "stream of " + chunks + " chunks was not cut off by the 2 s timeout");
+        } catch (HttpTimeoutException e) {
+            throw e;
+        } catch (IOException e) {
+            // Connection closed before the stream finished
+        }
+    }
+
+    private HttpResponse<byte[]> get(String path) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+            .timeout(Duration.ofSeconds(10))
+            .GET()
+            .build();
+        return HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofByteArray());
+    }
+}
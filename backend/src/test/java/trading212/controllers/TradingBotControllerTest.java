@@ -0,0 +1,120 @@
+package trading212.controllers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import trading212.services.EvaluationService;
+import trading212.services.HistoryTransferService;
+import trading212.services.PortfolioService;
+import trading212.services.PriceService;
+import trading212.services.ResponseCacheService;
+import trading212.services.TradingBotService;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@ExtendWith(MockitoExtension.class)
+class TradingBotControllerTest {
+
+    @Mock
+    private TradingBotService tradingBotService;
+
+    @Mock
+    private PortfolioService portfolioService;
+
+    @Mock
+    private PriceService priceService;
+
+    @Mock
+    private HistoryTransferService historyTransferService;
+
+    @Mock
+    private EvaluationService evaluationService;
+
+    private ResponseCacheService responseCacheService;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        responseCacheService = new ResponseCacheService(new ObjectMapper());
+        TradingBotController controller = new TradingBotController(tradingBotService, portfolioService, priceService,
+            historyTransferService, responseCacheService, evaluationService);
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+    }
+
+    @Test
+    void testUnknownModeIsRejectedBeforeReachingTheCache() throws Exception {
+        mockMvc.perform(get("/api/prices").param("mode", "whatever"))
+            .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/account").param("mode", "x1"))
+            .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/portfolio").param("mode", "x2"))
+            .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(priceService, portfolioService);
+    }
+
+    @Test
+    void testEvaluationRejectsBadParametersBeforeStreaming() throws Exception {
+        mockMvc.perform(get("/api/evaluation").param("mode", "nope"))
+            .andExpect(status().isBadRequest());
+
+        when(evaluationService.reserve("TRADING", 1000, 50))
+            .thenThrow(new IllegalArgumentException("folds must be at most 4"));
+        mockMvc.perform(get("/api/evaluation").param("mode", "TRADING").param("folds", "50"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("folds must be at most 4"));
+
+        mockMvc.perform(get("/api/evaluation").param("mode", "TRADING").param("paths", "abc"))
+            .andExpect(status().isBadRequest());
+
+        verify(evaluationService, never()).streamEvaluation(anyString(), anyInt(), anyInt(), anyLong(), any());
+    }
+
+    @Test
+    void testEvaluationAnswersTooManyRequestsWhenSlotsAreBusy() throws Exception {
+        when(evaluationService.reserve("TRADING", 1000, 5)).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/evaluation").param("mode", "TRADING"))
+            .andExpect(status().isTooManyRequests());
+
+        verify(evaluationService, never()).streamEvaluation(anyString(), anyInt(), anyInt(), anyLong(), any());
+    }
+
+    @Test
+    void testModeIsCaseInsensitive() throws Exception {
+        when(priceService.getPriceHistory("TRADING")).thenReturn(List.of(Map.of("price", 50000)));
+
+        mockMvc.perform(get("/api/prices").param("mode", "trading"))
+            .andExpect(status().isOk())
+            .andExpect(header().exists(HttpHeaders.ETAG));
+    }
+
+    @Test
+    void testMatchingEtagAnswersNotModified() throws Exception {
+        when(priceService.getPriceHistory("TRADING")).thenReturn(List.of(Map.of("price", 50000)));
+
+        MvcResult first = mockMvc.perform(get("/api/prices").param("mode", "TRADING"))
+            .andExpect(status().isOk())
+            .andReturn();
+        String etag = first.getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/prices").param("mode", "TRADING").header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isNotModified());
+        verify(priceService, times(1)).getPriceHistory("TRADING");
+    }
+}
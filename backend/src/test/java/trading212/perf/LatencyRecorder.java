@@ -0,0 +1,34 @@
+package trading212.perf;
+
+import java.util.Arrays;
+
+// Thread-safe collector of latency samples (nanoseconds) with nearest-rank percentiles
+public class LatencyRecorder {
+    private long[] samples = new long[1024];
+    private int size = 0;
+
+    public synchronized void record(long nanos) {
+        if (size == samples.length) {
+            samples = Arrays.copyOf(samples, size * 2);
+        }
+        samples[size++] = nanos;
+    }
+
+    public synchronized int count() {
+        return size;
+    }
+
+    public synchronized double percentileMillis(double percentile) {
+        if (size == 0) return 0;
+
+        long[] sorted = Arrays.copyOf(samples, size);
+        Arrays.sort(sorted);
+        int rank = (int) Math.ceil(percentile / 100.0 * size);
+        return sorted[Math.max(rank, 1) - 1] / 1_000_000.0;
+    }
+
+    public String summary(String name) {
+        return String.format("%-8s n=%d p50=%.2fms p99=%.2fms max=%.2fms",
+                name, count(), percentileMillis(50), percentileMillis(99), percentileMillis(100));
+    }
+}
@@ -0,0 +1,99 @@
+package trading212.perf;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Local stand-in for Coinbase's exchange-rates endpoint. Serves the same JSON shape PriceService
+// parses, stepping through a fixed series of USD rates at `ratesPerSecond` and wrapping around.
+public class StubPriceServer implements AutoCloseable {
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final String[] rates;
+    private final double ratesPerSecond;
+    private final long startNanos = System.nanoTime();
+
+    public StubPriceServer(double[] rates, double ratesPerSecond) throws IOException {
+        if (rates.length == 0) {
+            throw new IllegalArgumentException("At least one rate is required");
+        }
+        this.rates = new String[rates.length];
+        for (int i = 0; i < rates.length; i++) {
+            this.rates[i] = BigDecimal.valueOf(rates[i]).setScale(2, RoundingMode.HALF_UP).toPlainString();
+        }
+        this.ratesPerSecond = ratesPerSecond;
+
+        executor = Executors.newFixedThreadPool(4);
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/v2/exchange-rates", this::handle);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    // Random walk around 50000, the same shape training mode produces
+    public static StubPriceServer synthetic(long seed, int size, double ratesPerSecond) throws IOException {
+        SplittableRandom random = new SplittableRandom(seed);
+        double[] rates = new double[size];
+        double price = 50000;
+        for (int i = 0; i < size; i++) {
+            price = Math.max(10000, price + (random.nextDouble() - 0.5) * 1000);
+            rates[i] = price;
+        }
+        return new StubPriceServer(rates, ratesPerSecond);
+    }
+
+    // Recorded rates, one USD price per line
+    public static StubPriceServer replay(Path file, double ratesPerSecond) throws IOException {
+        double[] rates = Files.readAllLines(file).stream()
+                .map(String::trim)
+                .filter(line -> !line.isEmpty())
+                .mapToDouble(Double::parseDouble)
+                .toArray();
+        return new StubPriceServer(rates, ratesPerSecond);
+    }
+
+    // -Dperf.rates-file=<path> replays a recording, otherwise a seeded synthetic series is used
+    public static StubPriceServer fromSystemProperties() throws IOException {
+        double ratesPerSecond = Double.parseDouble(System.getProperty("perf.rates-per-second", "10"));
+        String file = System.getProperty("perf.rates-file");
+        if (file != null && !file.isBlank()) {
+            return replay(Path.of(file), ratesPerSecond);
+        }
+        return synthetic(Long.getLong("perf.seed", 212L), 10_000, ratesPerSecond);
+    }
+
+    public String url() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/v2/exchange-rates?currency=BTC";
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        long index = (long) ((System.nanoTime() - startNanos) / 1e9 * ratesPerSecond);
+        String rate = rates[(int) (index % rates.length)];
+        byte[] body = ("{\"data\":{\"currency\":\"BTC\",\"rates\":{\"USD\":\"" + rate + "\"}}}")
+                .getBytes(StandardCharsets.UTF_8);
+
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,186 @@
+package trading212.services;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EvaluationServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private ResultSet resultSet;
+
+    @Mock
+    private ObjectMapper objectMapper;
+
+    private static final ForkJoinPool pool = new ForkJoinPool(2);
+
+    private EvaluationService evaluationService;
+
+    @AfterAll
+    static void shutDownPool() {
+        pool.shutdown();
+    }
+
+    @BeforeEach
+    void setUp() {
+        evaluationService = new EvaluationService(jdbcTemplate, objectMapper, pool, 1);
+        evaluationService.symbol = "BTC";
+        evaluationService.shortMaPeriod = 5;
+        evaluationService.longMaPeriod = 20;
+        evaluationService.tradePercentage = new BigDecimal("0.2");
+        evaluationService.fetchSize = 1000;
+        evaluationService.blockSize = 10;
+    }
+
+    @Test
+    void testEvaluateStreamsEveryPathAndAggregates() throws Exception {
+        mockHistory(500);
+        ConcurrentLinkedQueue<Map<String, Object>> results = new ConcurrentLinkedQueue<>();
+
+        Map<String, Object> summary = evaluationService.evaluate("TRAINING", 100, 4, 7L, results::add);
+
+        assertEquals(104, results.size());
+        assertEquals(4, results.stream().filter(r -> "WALK_FORWARD".equals(r.get("type"))).count());
+        assertEquals(500, summary.get("history_size"));
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> monteCarlo = (Map<String, Object>) summary.get("monte_carlo");
+        @SuppressWarnings("unchecked")
+        Map<String, Object> pnl = (Map<String, Object>) monteCarlo.get("pnl");
+        assertEquals(100, monteCarlo.get("count"));
+        assertTrue((Double) pnl.get("p5") <= (Double) pnl.get("p50"));
+        assertTrue((Double) pnl.get("p50") <= (Double) pnl.get("p95"));
+    }
+
+    @Test
+    void testEvaluateIsReproducibleForSeed() throws Exception {
+        mockHistory(300);
+
+        Map<String, Object> first = evaluationService.evaluate("TRAINING", 50, 2, 42L, r -> { });
+        Map<String, Object> second = evaluationService.evaluate("TRAINING", 50, 2, 42L, r -> { });
+
+        assertEquals(first.get("monte_carlo"), second.get("monte_carlo"));
+        assertEquals(first.get("walk_forward"), second.get("walk_forward"));
+    }
+
+    @Test
+    void testEvaluateRejectsTooManyPaths() {
+        assertThrows(IllegalArgumentException.class,
+            () -> evaluationService.evaluate("TRAINING", EvaluationService.MAX_PATHS + 1, 1, 1L, r -> { }));
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void testEvaluateRejectsFoldsThatNeverLeaveWarmUp() throws Exception {
+        mockHistory(100);
+
+        // 100 / 5 = 20 prices per fold, but trading starts after long MA (20) + 1
+        assertThrows(IllegalArgumentException.class,
+            () -> evaluationService.evaluate("TRAINING", 10, 5, 1L, r -> { }));
+    }
+
+    @Test
+    void testValidateChecksFoldsAgainstHistorySize() {
+        when(jdbcTemplate.queryForObject(anyString(), eq(Integer.class), eq("BTC"), eq("TRADING"))).thenReturn(100);
+
+        assertDoesNotThrow(() -> evaluationService.validate("TRADING", 10, 4));
+        assertThrows(IllegalArgumentException.class, () -> evaluationService.validate("TRADING", 10, 5));
+        assertThrows(IllegalArgumentException.class, () -> evaluationService.validate("TRADING", -1, 4));
+    }
+
+    @Test
+    void testReserveLimitsConcurrentEvaluations() {
+        when(jdbcTemplate.queryForObject(anyString(), eq(Integer.class), eq("BTC"), eq("TRADING"))).thenReturn(100);
+
+        Optional<EvaluationService.Slot> first = evaluationService.reserve("TRADING", 10, 4);
+        assertTrue(first.isPresent());
+        assertTrue(evaluationService.reserve("TRADING", 10, 4).isEmpty());
+
+        // Closing twice must not hand out an extra slot
+        first.get().close();
+        first.get().close();
+        Optional<EvaluationService.Slot> second = evaluationService.reserve("TRADING", 10, 4);
+        assertTrue(second.isPresent());
+        assertTrue(evaluationService.reserve("TRADING", 10, 4).isEmpty());
+    }
+
+    @Test
+    void testReserveValidatesBeforeTakingASlot() {
+        assertThrows(IllegalArgumentException.class, () -> evaluationService.reserve("TRADING", -1, 4));
+
+        when(jdbcTemplate.queryForObject(anyString(), eq(Integer.class), eq("BTC"), eq("TRADING"))).thenReturn(100);
+        assertTrue(evaluationService.reserve("TRADING", 10, 4).isPresent());
+    }
+
+    @Test
+    void testSimulatorWarmUpMatchesTraining() {
+        CrossoverSimulator simulator = new CrossoverSimulator(2, 4, 0.5);
+
+        // Training only evaluates index i > 4, so the jump at index 4 is not traded yet
+        for (double price : List.of(100.0, 100.0, 100.0, 100.0, 200.0)) {
+            simulator.step(price);
+        }
+        assertEquals(0, simulator.trades());
+
+        simulator.step(200.0);
+        assertEquals(1, simulator.trades());
+    }
+
+    @Test
+    void testSimulatorTradesOnCrossover() {
+        CrossoverSimulator simulator = new CrossoverSimulator(2, 4, 0.5);
+
+        // Flat, then a rally (buy), then a drop (sell)
+        for (double price : List.of(100.0, 100.0, 100.0, 100.0, 100.0, 110.0, 120.0, 130.0, 90.0, 80.0, 70.0)) {
+            simulator.step(price);
+        }
+
+        assertEquals(2, simulator.trades());
+        assertTrue(simulator.maxDrawdown() > 0);
+    }
+
+    // Deterministic sawtooth-ish random walk served through the row callback
+    private void mockHistory(int size) throws Exception {
+        double[] prices = new double[size];
+        double price = 50000;
+        for (int i = 0; i < size; i++) {
+            price += Math.sin(i / 7.0) * 300 + (i % 3 - 1) * 50;
+            prices[i] = price;
+        }
+
+        int[] cursor = { 0 };
+        when(resultSet.getDouble("price")).thenAnswer(invocation -> prices[cursor[0]++]);
+        doAnswer(invocation -> {
+            cursor[0] = 0;
+            RowCallbackHandler handler = invocation.getArgument(1);
+            for (int i = 0; i < size; i++) {
+                handler.processRow(resultSet);
+            }
+            return null;
+        }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+    }
+}
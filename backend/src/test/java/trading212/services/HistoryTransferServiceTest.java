@@ -0,0 +1,165 @@
+package trading212.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class HistoryTransferServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private ResultSet resultSet;
+
+    @Mock
+    private ResponseCacheService responseCacheService;
+
+    @InjectMocks
+    private HistoryTransferService historyTransferService;
+
+    @BeforeEach
+    void setUp() {
+        historyTransferService.symbol = "BTC";
+        historyTransferService.fetchSize = 1000;
+        historyTransferService.batchSize = 2;
+    }
+
+    @Test
+    void testPriceHistoryRoundTrip() throws Exception {
+        Timestamp first = Timestamp.valueOf("2026-01-01 00:00:00");
+        Timestamp second = Timestamp.valueOf("2026-01-01 00:30:00");
+        Timestamp third = Timestamp.valueOf("2026-01-01 01:00:00");
+        when(resultSet.getTimestamp("timestamp")).thenReturn(first, second, third);
+        when(resultSet.getBigDecimal("price"))
+            .thenReturn(new BigDecimal("50000.12345678"), new BigDecimal("49950.5"), new BigDecimal("50010"));
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            for (int i = 0; i < 3; i++) {
+                handler.processRow(resultSet);
+            }
+            return null;
+        }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+
+        ByteArrayOutputStream exported = new ByteArrayOutputStream();
+        historyTransferService.exportPriceHistory("TRAINING", exported);
+
+        List<Object[]> inserted = new ArrayList<>();
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenAnswer(invocation -> {
+            List<Object[]> batch = invocation.getArgument(1);
+            inserted.addAll(batch);
+            return new int[batch.size()];
+        });
+
+        int imported = historyTransferService.importPriceHistory(new ByteArrayInputStream(exported.toByteArray()));
+
+        assertEquals(3, imported);
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), anyList());
+        assertEquals("BTC", inserted.get(0)[0]);
+        assertEquals(0, new BigDecimal("50000.12345678").compareTo((BigDecimal) inserted.get(0)[1]));
+        assertEquals(0, new BigDecimal("49950.5").compareTo((BigDecimal) inserted.get(1)[1]));
+        assertEquals("TRAINING", inserted.get(2)[2]);
+        assertEquals(third, inserted.get(2)[3]);
+        verify(responseCacheService).invalidate("TRAINING");
+    }
+
+    @Test
+    void testTradeRoundTripKeepsNullProfitLossAndSkipsDuplicates() throws Exception {
+        Timestamp buyTime = Timestamp.valueOf("2026-01-01 00:00:00");
+        Timestamp sellTime = Timestamp.valueOf("2026-01-01 00:05:00");
+        Timestamp secondSellTime = Timestamp.valueOf("2026-01-01 00:10:00");
+        when(resultSet.getTimestamp("timestamp")).thenReturn(buyTime, sellTime, secondSellTime);
+        when(resultSet.getString("trade_type")).thenReturn("BUY", "SELL", "SELL");
+        when(resultSet.getBigDecimal("price"))
+            .thenReturn(new BigDecimal("50000"), new BigDecimal("50500.5"), new BigDecimal("49000"));
+        when(resultSet.getBigDecimal("quantity"))
+            .thenReturn(new BigDecimal("0.04"), new BigDecimal("0.02"), new BigDecimal("0.02"));
+        when(resultSet.getBigDecimal("total_value"))
+            .thenReturn(new BigDecimal("2000"), new BigDecimal("1010.01"), new BigDecimal("980"));
+        when(resultSet.getBigDecimal("profit_loss"))
+            .thenReturn(null, new BigDecimal("10.01"), new BigDecimal("-20"));
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            for (int i = 0; i < 3; i++) {
+                handler.processRow(resultSet);
+            }
+            return null;
+        }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+
+        ByteArrayOutputStream exported = new ByteArrayOutputStream();
+        historyTransferService.exportTrades("TRADING", exported);
+
+        // The first batch is new, the last trade is already in the table
+        List<Object[]> inserted = new ArrayList<>();
+        when(jdbcTemplate.batchUpdate(contains("WHERE NOT EXISTS"), anyList()))
+            .thenAnswer(invocation -> {
+                List<Object[]> batch = invocation.getArgument(1);
+                inserted.addAll(batch);
+                return new int[] {1, 1};
+            })
+            .thenAnswer(invocation -> {
+                List<Object[]> batch = invocation.getArgument(1);
+                inserted.addAll(batch);
+                return new int[] {0};
+            });
+
+        int imported = historyTransferService.importTrades(new ByteArrayInputStream(exported.toByteArray()));
+
+        assertEquals(2, imported);
+        assertEquals(3, inserted.size());
+
+        Object[] buy = inserted.get(0);
+        assertEquals("BTC", buy[0]);
+        assertEquals("BUY", buy[1]);
+        assertEquals(0, new BigDecimal("0.04").compareTo((BigDecimal) buy[2]));
+        assertEquals(0, new BigDecimal("50000").compareTo((BigDecimal) buy[3]));
+        assertEquals(0, new BigDecimal("2000").compareTo((BigDecimal) buy[4]));
+        assertNull(buy[5]);
+        assertEquals(buyTime, buy[6]);
+        assertEquals("TRADING", buy[7]);
+
+        Object[] sell = inserted.get(1);
+        assertEquals("SELL", sell[1]);
+        assertEquals(0, new BigDecimal("50500.5").compareTo((BigDecimal) sell[3]));
+        assertEquals(0, new BigDecimal("10.01").compareTo((BigDecimal) sell[5]));
+        assertEquals(0, new BigDecimal("-20").compareTo((BigDecimal) inserted.get(2)[5]));
+
+        // Dedupe key: mode, timestamp, symbol, trade_type, quantity, price
+        assertArrayEquals(new Object[] {"TRADING", sellTime, "BTC", "SELL", sell[2], sell[3]},
+            Arrays.copyOfRange(sell, 8, 14));
+        verify(responseCacheService).invalidate("TRADING");
+    }
+
+    @Test
+    void testImportRejectsForeignStream() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            gzip.write(new byte[] {1, 2, 3, 4, 5});
+        }
+
+        assertThrows(IllegalArgumentException.class,
+            () -> historyTransferService.importTrades(new ByteArrayInputStream(bytes.toByteArray())));
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    }
+}
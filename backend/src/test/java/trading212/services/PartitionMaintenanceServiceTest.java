@@ -0,0 +1,96 @@
+package trading212.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PartitionMaintenanceServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private ResponseCacheService responseCacheService;
+
+    @InjectMocks
+    private PartitionMaintenanceService partitionMaintenanceService;
+
+    private final LocalDate today = LocalDate.of(2026, 10, 19);
+
+    @BeforeEach
+    void setUp() {
+        partitionMaintenanceService.enabled = true;
+        partitionMaintenanceService.daysAhead = 2;
+        partitionMaintenanceService.retentionDays = 0;
+    }
+
+    @Test
+    void testSplitsUpcomingDaysOutOfFuturePartition() {
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), eq("price_history")))
+            .thenReturn(List.of("p20261019", "p_future", "p_training"));
+
+        partitionMaintenanceService.maintainPartitions("price_history", today);
+
+        verify(jdbcTemplate).execute(
+            "ALTER TABLE price_history REORGANIZE PARTITION p_future INTO (" +
+            "PARTITION p20261020 VALUES LESS THAN ('TRADING', '2026-10-21 00:00:00'), " +
+            "PARTITION p20261021 VALUES LESS THAN ('TRADING', '2026-10-22 00:00:00'), " +
+            "PARTITION p_future VALUES LESS THAN ('TRADING', MAXVALUE))"
+        );
+    }
+
+    @Test
+    void testKeepsAllDaysWithoutRetention() {
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), eq("price_history")))
+            .thenReturn(List.of("p20261001", "p20261002", "p20261019", "p20261020", "p20261021", "p_future", "p_training"));
+
+        partitionMaintenanceService.maintainPartitions("price_history", today);
+
+        verify(jdbcTemplate, never()).execute(contains("DROP PARTITION"));
+        verifyNoInteractions(responseCacheService);
+    }
+
+    @Test
+    void testDropsExpiredDays() {
+        partitionMaintenanceService.retentionDays = 10;
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), eq("price_history")))
+            .thenReturn(List.of("p20261001", "p20261002", "p20261019", "p20261020", "p20261021", "p_future", "p_training"));
+
+        partitionMaintenanceService.maintainPartitions("price_history", today);
+
+        verify(jdbcTemplate).execute("ALTER TABLE price_history DROP PARTITION p20261001, p20261002");
+        verify(responseCacheService).invalidate("TRADING");
+        verify(jdbcTemplate, never()).execute(contains("REORGANIZE"));
+    }
+
+    @Test
+    void testIgnoresTablesWithoutDayPartitions() {
+        partitionMaintenanceService.retentionDays = 10;
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), eq("trades")))
+            .thenReturn(List.of());
+
+        partitionMaintenanceService.maintainPartitions("trades", today);
+
+        verify(jdbcTemplate, never()).execute(anyString());
+    }
+
+    @Test
+    void testDisabled() {
+        partitionMaintenanceService.enabled = false;
+
+        partitionMaintenanceService.maintainPartitions();
+
+        verifyNoInteractions(jdbcTemplate);
+    }
+}
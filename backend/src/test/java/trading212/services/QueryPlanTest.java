@@ -0,0 +1,229 @@
+package trading212.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// EXPLAIN and cost regression suite on a production-like layout: applies the Flyway migrations to
+// a real MySQL 8, seeds two months of TRADING prices plus future-dated TRAINING prices, lets
+// PartitionMaintenanceService roll the day partitions and expire old days (retention opted in), and then checks that
+// the hot queries keep to the intended index and partitions and read only a bounded number of rows.
+// Skipped when Docker is unavailable.
+@Testcontainers(disabledWithoutDocker = true)
+class QueryPlanTest {
+
+    private static final List<String> SYMBOLS = List.of("BTC", "ETH", "SOL");
+    private static final LocalDate FIRST_DAY = LocalDate.of(2026, 9, 20);
+    private static final LocalDate TODAY = FIRST_DAY.plusDays(59);
+    private static final int RETENTION_DAYS = 14;
+    private static final int DAYS_AHEAD = 7;
+    private static final int PRICES_PER_DAY = 144;
+    private static final int TRAINING_PRICES = 5000;
+
+    @Container
+    private static final MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0")
+        .withDatabaseName("trading_bot_db")
+        .withUsername("root")
+        .withPassword("123")
+        .withUrlParam("rewriteBatchedStatements", "true")
+        .withUrlParam("connectionTimeZone", "UTC")
+        .withUrlParam("forceConnectionTimeZoneToSession", "true");
+
+    // One connection, so SHOW SESSION STATUS sees the same session as the query
+    private static SingleConnectionDataSource dataSource;
+    private static JdbcTemplate jdbcTemplate;
+
+    // TRADING partitions left after maintenance; every TRADING price query may probe each of them
+    private static int tradingPartitions;
+
+    @BeforeAll
+    static void migrateSeedAndMaintain() {
+        dataSource = new SingleConnectionDataSource(mysql.getJdbcUrl(), mysql.getUsername(), mysql.getPassword(), true);
+        Flyway.configure().dataSource(dataSource).load().migrate();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+
+        // TRADING: one price every 10 minutes per symbol up to today, most of it in p_future until
+        // maintenance splits it into days. LocalDateTime values are stored as given (UTC wall-clock)
+        // whatever the JVM zone.
+        List<Object[]> prices = new ArrayList<>();
+        LocalDateTime start = FIRST_DAY.atStartOfDay();
+        for (String symbol : SYMBOLS) {
+            for (int i = 0; i < 60 * PRICES_PER_DAY; i++) {
+                prices.add(new Object[] {symbol, new BigDecimal(50000 + i % 1000), "TRADING", start.plusMinutes(10L * i)});
+            }
+        }
+        // TRAINING: simulated steps are 30 minutes apart from "now", so they are all future-dated
+        LocalDateTime trainingStart = TODAY.plusDays(1).atStartOfDay();
+        for (String symbol : SYMBOLS) {
+            for (int i = 0; i < TRAINING_PRICES; i++) {
+                prices.add(new Object[] {symbol, new BigDecimal(40000 + i % 1000), "TRAINING", trainingStart.plusMinutes(30L * i)});
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO price_history (symbol, price, mode, timestamp) VALUES (?, ?, ?, ?)", prices);
+
+        List<Object[]> trades = new ArrayList<>();
+        for (String mode : List.of("TRAINING", "TRADING")) {
+            for (int i = 0; i < 2000; i++) {
+                trades.add(new Object[] {i % 2 == 0 ? "BUY" : "SELL", start.plusMinutes(7L * i), mode});
+            }
+        }
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO trades (account_id, symbol, trade_type, quantity, price, total_value, profit_loss, timestamp, mode) " +
+            "VALUES (1, 'BTC', ?, 0.1, 50000, 5000, 0, ?, ?)",
+            trades
+        );
+        jdbcTemplate.update("INSERT INTO portfolio (account_id, symbol, quantity, average_buy_price, mode) VALUES (1, 'BTC', 0.5, 50000, 'TRADING')");
+
+        PartitionMaintenanceService maintenance = new PartitionMaintenanceService(jdbcTemplate, new ResponseCacheService(new ObjectMapper()));
+        maintenance.enabled = true;
+        maintenance.daysAhead = DAYS_AHEAD;
+        maintenance.retentionDays = RETENTION_DAYS;
+        maintenance.maintainPartitions("price_history", TODAY);
+
+        jdbcTemplate.execute("ANALYZE TABLE price_history, trades, portfolio");
+        tradingPartitions = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM information_schema.PARTITIONS " +
+            "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'price_history' AND PARTITION_NAME <> 'p_training'",
+            Integer.class);
+    }
+
+    @AfterAll
+    static void closeConnection() {
+        dataSource.destroy();
+    }
+
+    @Test
+    void testMaintenanceRollsDaysAndKeepsTrainingApart() {
+        // Retained days up to today, the days ahead, and p_future
+        assertEquals(RETENTION_DAYS + 1 + DAYS_AHEAD + 1, tradingPartitions);
+        assertEquals(0, countRows("p_future"));
+        assertEquals(SYMBOLS.size() * TRAINING_PRICES, countRows("p_training"));
+        assertEquals(SYMBOLS.size() * PRICES_PER_DAY, countRows("p" + TODAY.toString().replace("-", "")));
+
+        Integer oldest = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM price_history WHERE mode = 'TRADING' AND timestamp < ?",
+            Integer.class, TODAY.minusDays(RETENTION_DAYS).atStartOfDay());
+        assertEquals(0, oldest, "expired days were not dropped");
+    }
+
+    @Test
+    void testMovingAverageReadsPrimaryKeyBackwards() {
+        Map<String, Object> row = planFor("price_history", PriceService.MOVING_AVERAGE_SQL, "BTC", "TRADING", 30);
+
+        assertUsesIndex(row, "PRIMARY");
+        assertSkipsTraining(row);
+        // Index reads plus the derived table of 30 prices
+        assertReadsAtMost(2 * 30 + 2 * tradingPartitions + 10, PriceService.MOVING_AVERAGE_SQL, "BTC", "TRADING", 30);
+    }
+
+    @Test
+    void testTrainingMovingAverageOnlyTouchesTrainingPartition() {
+        Map<String, Object> row = planFor("price_history", PriceService.MOVING_AVERAGE_SQL, "BTC", "TRAINING", 30);
+
+        assertUsesIndex(row, "PRIMARY");
+        assertEquals("p_training", row.get("partitions"), () -> "Unexpected partitions: " + row);
+        assertReadsAtMost(2 * 30 + 10, PriceService.MOVING_AVERAGE_SQL, "BTC", "TRAINING", 30);
+    }
+
+    @Test
+    void testPriceHistoryReadsPrimaryKeyBackwards() {
+        Map<String, Object> row = planFor("price_history", PriceService.PRICE_HISTORY_SQL, "BTC", "TRADING");
+
+        assertUsesIndex(row, "PRIMARY");
+        assertSkipsTraining(row);
+        assertReadsAtMost(200 + 2 * tradingPartitions + 10, PriceService.PRICE_HISTORY_SQL, "BTC", "TRADING");
+    }
+
+    @Test
+    void testTradeHistoryUsesAccountModeTimestampIndex() {
+        Map<String, Object> row = planFor("trades", PortfolioService.TRADE_HISTORY_SQL, "TRADING");
+
+        assertUsesIndex(row, "idx_trades_account_mode_timestamp");
+        assertReadsAtMost(2 * 100 + 10, PortfolioService.TRADE_HISTORY_SQL, "TRADING");
+    }
+
+    @Test
+    void testPortfolioValueLooksUpLatestPriceByPrimaryKey() {
+        Map<String, Object> row = planFor("ph", PortfolioService.PORTFOLIO_VALUE_SQL, "TRADING", "TRADING");
+
+        assertUsesIndex(row, "PRIMARY");
+        assertSkipsTraining(row);
+        // One held symbol: a latest-row probe per partition
+        assertReadsAtMost(4 * tradingPartitions + 20, PortfolioService.PORTFOLIO_VALUE_SQL, "TRADING", "TRADING");
+    }
+
+    @Test
+    void testPortfolioLatestPricesUseIndexes() {
+        List<Map<String, Object>> plan = explain(PortfolioService.PORTFOLIO_SQL, "TRADING", "TRADING", "TRADING");
+
+        assertUsesIndex(find(plan, "price_history"), "PRIMARY");
+        assertUsesIndex(find(plan, "ph1"), "PRIMARY");
+        assertSkipsTraining(find(plan, "price_history"));
+        // Latest price per symbol (loose index scan) plus its lookup, for each partition
+        assertReadsAtMost(SYMBOLS.size() * 4 * tradingPartitions + 50,
+            PortfolioService.PORTFOLIO_SQL, "TRADING", "TRADING", "TRADING");
+    }
+
+    private static int countRows(String partition) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM price_history PARTITION (" + partition + ")", Integer.class);
+    }
+
+    private static List<Map<String, Object>> explain(String sql, Object... args) {
+        return jdbcTemplate.queryForList("EXPLAIN " + sql, args);
+    }
+
+    private static Map<String, Object> planFor(String table, String sql, Object... args) {
+        return find(explain(sql, args), table);
+    }
+
+    private static Map<String, Object> find(List<Map<String, Object>> plan, String table) {
+        return plan.stream()
+            .filter(row -> table.equals(row.get("table")))
+            .findFirst()
+            .orElseThrow(() -> new AssertionError("No plan row for " + table + ": " + plan));
+    }
+
+    private static void assertUsesIndex(Map<String, Object> row, String index) {
+        assertEquals(index, row.get("key"), () -> "Unexpected plan: " + row);
+        assertNotEquals("ALL", row.get("type"), () -> "Full scan: " + row);
+        String extra = String.valueOf(row.get("Extra"));
+        assertFalse(extra.contains("filesort"), () -> "Filesort: " + row);
+    }
+
+    private static void assertSkipsTraining(Map<String, Object> row) {
+        String partitions = String.valueOf(row.get("partitions"));
+        assertFalse(partitions.contains("p_training"), () -> "TRADING query reads the training partition: " + row);
+    }
+
+    // Run the query and count the rows and index entries it read (session Handler_read_* delta,
+    // less what reading the counters itself costs). A full scan of the TRADING prices reads thousands.
+    private static void assertReadsAtMost(long bound, String sql, Object... args) {
+        long before = handlerReads();
+        jdbcTemplate.queryForList(sql, args);
+        long after = handlerReads();
+        long reads = after - before - (handlerReads() - after);
+        assertTrue(reads <= bound, () -> "Read " + reads + " rows/index entries, expected at most " + bound + " for: " + sql);
+    }
+
+    private static long handlerReads() {
+        return jdbcTemplate.queryForList("SHOW SESSION STATUS LIKE 'Handler_read%'").stream()
+            .mapToLong(row -> Long.parseLong(String.valueOf(row.get("Value"))))
+            .sum();
+    }
+}
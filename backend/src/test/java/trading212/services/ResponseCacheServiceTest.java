@@ -0,0 +1,67 @@
+package trading212.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResponseCacheServiceTest {
+
+    private ResponseCacheService responseCacheService;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        responseCacheService = new ResponseCacheService(new ObjectMapper());
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void testServesCachedBodyUntilInvalidated() {
+        ResponseCacheService.CachedResponse first = responseCacheService.get("account:TRAINING", "TRAINING", this::load);
+        ResponseCacheService.CachedResponse second = responseCacheService.get("account:TRAINING", "TRAINING", this::load);
+
+        assertEquals(1, loads.get());
+        assertSame(first.body(), second.body());
+        assertEquals("{\"load\":1}", new String(first.body()));
+
+        responseCacheService.invalidate("TRAINING");
+        ResponseCacheService.CachedResponse third = responseCacheService.get("account:TRAINING", "TRAINING", this::load);
+
+        assertEquals(2, loads.get());
+        assertNotEquals(first.etag(), third.etag());
+        assertEquals(responseCacheService.currentEtag("TRAINING"), third.etag());
+    }
+
+    @Test
+    void testInvalidateOnlyAffectsItsScope() {
+        responseCacheService.get("prices:TRADING", "TRADING", this::load);
+        String tradingEtag = responseCacheService.currentEtag("TRADING");
+
+        responseCacheService.invalidate("TRAINING");
+
+        assertEquals(tradingEtag, responseCacheService.currentEtag("TRADING"));
+        responseCacheService.get("prices:TRADING", "TRADING", this::load);
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void testMatchesIfNoneMatch() {
+        String etag = responseCacheService.currentEtag(ResponseCacheService.STATUS_SCOPE);
+
+        assertTrue(responseCacheService.matches(etag, etag));
+        assertTrue(responseCacheService.matches("\"other\", W/" + etag, etag));
+        assertTrue(responseCacheService.matches("*", etag));
+        assertFalse(responseCacheService.matches("\"other\"", etag));
+        assertFalse(responseCacheService.matches(null, etag));
+    }
+
+    private Map<String, Object> load() {
+        return Map.of("load", loads.incrementAndGet());
+    }
+}
@@ -0,0 +1,221 @@
+package trading212.services;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import trading212.perf.LatencyRecorder;
+import trading212.perf.StubPriceServer;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Drives TRADING ticks against the stub price server and a real MySQL (Testcontainers, migrated
+// by Flyway) while concurrent clients poll the dashboard endpoints, then checks the books balance.
+// Run with: mvn test -Pperf -Dperf.tick.p99-ms=<ms> -Dperf.request.p99-ms=<ms>
+// The budgets are machine-specific and have no default; -Dperf.report-only=true prints the
+// percentiles without enforcing them, which gives the baseline to set the budgets from.
+// Other knobs (system properties): perf.ticks, perf.warmup-ticks, perf.ticks-per-second,
+// perf.clients, perf.rates-per-second, perf.rates-file, perf.seed
+@Tag("perf")
+@Testcontainers
+@ActiveProfiles("perf")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class TradingBotLoadTest {
+
+    private static final String[] ENDPOINTS = {
+        "/api/account?mode=TRADING",
+        "/api/portfolio?mode=TRADING",
+        "/api/prices?mode=TRADING",
+        "/api/trades?mode=TRADING",
+        "/api/bot/status"
+    };
+
+    // Money and positions are DECIMAL(20, 8); allow a little rounding across many trades
+    private static final BigDecimal TOLERANCE = new BigDecimal("0.0001");
+
+    @Container
+    private static final MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0")
+        .withDatabaseName("trading_bot_db")
+        .withUsername("root")
+        .withPassword("123")
+        .withUrlParam("useCursorFetch", "true")
+        .withUrlParam("rewriteBatchedStatements", "true")
+        .withUrlParam("connectionTimeZone", "UTC")
+        .withUrlParam("forceConnectionTimeZoneToSession", "true");
+
+    private static StubPriceServer priceServer;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TradingBotService tradingBotService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void perfProperties(DynamicPropertyRegistry registry) throws IOException {
+        registry.add("spring.datasource.url", mysql::getJdbcUrl);
+        registry.add("spring.datasource.username", mysql::getUsername);
+        registry.add("spring.datasource.password", mysql::getPassword);
+
+        priceServer = StubPriceServer.fromSystemProperties();
+        registry.add("trading.bot.api-url", priceServer::url);
+    }
+
+    @AfterAll
+    static void stopPriceServer() {
+        priceServer.close();
+    }
+
+    @Test
+    void tickAndRequestLatencyStayWithinBudget() throws Exception {
+        int ticks = Integer.getInteger("perf.ticks", 1000);
+        int warmupTicks = Integer.getInteger("perf.warmup-ticks", 50);
+        int ticksPerSecond = Integer.getInteger("perf.ticks-per-second", 20);
+        int clients = Integer.getInteger("perf.clients", 16);
+        boolean reportOnly = Boolean.getBoolean("perf.report-only");
+        double tickBudgetMs = budget("perf.tick.p99-ms", reportOnly);
+        double requestBudgetMs = budget("perf.request.p99-ms", reportOnly);
+
+        LatencyRecorder tickLatency = new LatencyRecorder();
+        LatencyRecorder requestLatency = new LatencyRecorder();
+        AtomicBoolean loading = new AtomicBoolean(true);
+        AtomicBoolean recording = new AtomicBoolean(false);
+        AtomicInteger failures = new AtomicInteger();
+
+        HttpClient client = HttpClient.newHttpClient();
+        ExecutorService load = Executors.newFixedThreadPool(clients);
+        List<Future<?>> workers = new ArrayList<>();
+        for (int c = 0; c < clients; c++) {
+            int offset = c;
+            workers.add(load.submit(() -> {
+                int i = offset;
+                while (loading.get()) {
+                    HttpRequest request = HttpRequest.newBuilder(
+                            URI.create("http://localhost:" + port + ENDPOINTS[i++ % ENDPOINTS.length])).GET().build();
+                    long start = System.nanoTime();
+                    HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+                    if (recording.get()) {
+                        requestLatency.record(System.nanoTime() - start);
+                    }
+                    if (response.statusCode() != 200) {
+                        failures.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+
+        // Tick from the test thread (instead of the 7s scheduler) so each tick can be timed
+        tradingBotService.currentMode.set("TRADING");
+        tradingBotService.isRunning.set(true);
+        long intervalNanos = 1_000_000_000L / ticksPerSecond;
+        long next = System.nanoTime();
+        try {
+            for (int i = 0; i < warmupTicks + ticks; i++) {
+                recording.set(i >= warmupTicks);
+                long start = System.nanoTime();
+                tradingBotService.runTradingStep();
+                if (recording.get()) {
+                    tickLatency.record(System.nanoTime() - start);
+                }
+                next += intervalNanos;
+                LockSupport.parkNanos(next - System.nanoTime());
+            }
+        } finally {
+            loading.set(false);
+            tradingBotService.isRunning.set(false);
+            load.shutdown();
+        }
+        assertTrue(load.awaitTermination(30, TimeUnit.SECONDS));
+        for (Future<?> worker : workers) {
+            worker.get();
+        }
+
+        System.out.println(tickLatency.summary("tick"));
+        System.out.println(requestLatency.summary("request"));
+
+        Integer saved = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM price_history WHERE mode = 'TRADING'", Integer.class);
+        assertTrue(saved != null && saved > 0, "ticks did not record any prices");
+        assertEquals(0, failures.get(), "non-200 responses under load");
+        assertBooksBalance();
+
+        if (reportOnly) return;
+        assertTrue(tickLatency.percentileMillis(99) <= tickBudgetMs,
+                "tick p99 " + tickLatency.percentileMillis(99) + "ms exceeds " + tickBudgetMs + "ms");
+        assertTrue(requestLatency.percentileMillis(99) <= requestBudgetMs,
+                "request p99 " + requestLatency.percentileMillis(99) + "ms exceeds " + requestBudgetMs + "ms");
+    }
+
+    // The bot must have traded both ways, and the account and portfolio must agree with the trades:
+    // balance = initial - bought + sold, position = bought - sold
+    private void assertBooksBalance() {
+        Map<String, Map<String, Object>> totals = new HashMap<>();
+        for (Map<String, Object> row : jdbcTemplate.queryForList(
+                "SELECT trade_type, COUNT(*) AS trades, SUM(quantity) AS quantity, SUM(total_value) AS total_value " +
+                "FROM trades WHERE account_id = 1 AND symbol = 'BTC' AND mode = 'TRADING' GROUP BY trade_type")) {
+            totals.put((String) row.get("trade_type"), row);
+        }
+        assertTrue(totals.containsKey("BUY"), "no BUY trades recorded: " + totals);
+        assertTrue(totals.containsKey("SELL"), "no SELL trades recorded: " + totals);
+
+        Map<String, Object> account = jdbcTemplate.queryForMap(
+                "SELECT balance, initial_balance FROM account WHERE id = 1 AND mode = 'TRADING'");
+        BigDecimal expectedBalance = ((BigDecimal) account.get("initial_balance"))
+                .subtract((BigDecimal) totals.get("BUY").get("total_value"))
+                .add((BigDecimal) totals.get("SELL").get("total_value"));
+        assertWithinTolerance(expectedBalance, (BigDecimal) account.get("balance"), "balance");
+
+        BigDecimal position = jdbcTemplate.queryForObject(
+                "SELECT COALESCE(SUM(quantity), 0) FROM portfolio WHERE account_id = 1 AND symbol = 'BTC' AND mode = 'TRADING'",
+                BigDecimal.class);
+        BigDecimal expectedPosition = ((BigDecimal) totals.get("BUY").get("quantity"))
+                .subtract((BigDecimal) totals.get("SELL").get("quantity"));
+        assertWithinTolerance(expectedPosition, position, "position");
+    }
+
+    private static void assertWithinTolerance(BigDecimal expected, BigDecimal actual, String what) {
+        assertTrue(expected.subtract(actual).abs().compareTo(TOLERANCE) <= 0,
+                what + " " + actual + " does not match the trades (expected " + expected + ")");
+    }
+
+    private static double budget(String property, boolean reportOnly) {
+        String value = System.getProperty(property);
+        if (value != null && !value.isBlank()) {
+            return Double.parseDouble(value);
+        }
+        if (!reportOnly) {
+            fail("-D" + property + " is required; run once with -Dperf.report-only=true to measure a baseline on this machine");
+        }
+        return Double.NaN;
+    }
+}
@@ -34,6 +34,9 @@ class TradingBotServiceTest {
     
     @Mock
     private TaskScheduler taskScheduler;
+
+    @Mock
+    private ResponseCacheService responseCacheService;
     
     @Mock
     @SuppressWarnings("rawtypes")
@@ -112,6 +115,23 @@ class TradingBotServiceTest {
         verify(portfolioService).upsertBalance(any(), eq("TRAINING"));
         verify(portfolioService).upsertPortfolio(eq(quantity), eq(price), eq(symbol), eq("BUY"), eq("TRAINING"));
         verify(jdbcTemplate).update(anyString(), any(), any(), any(), any(), any(), any(), any(), any());
+        verify(responseCacheService).invalidate("TRAINING");
+    }
+
+    @Test
+    void testExecuteTradeSell() {
+        BigDecimal quantity = new BigDecimal("0.5");
+        BigDecimal price = new BigDecimal("50000");
+        LocalDateTime timestamp = LocalDateTime.now();
+        when(portfolioService.calculateProfitLoss(quantity, price, symbol, "TRADING")).thenReturn(new BigDecimal("100"));
+
+        tradingBotService.executeTrade("SELL", quantity, price, "TRADING", timestamp);
+
+        // The portfolio is credited quantity * price, so it must get the unit price
+        verify(portfolioService).upsertPortfolio(eq(quantity), eq(price), eq(symbol), eq("SELL"), eq("TRADING"));
+        verify(portfolioService, never()).upsertBalance(any(), anyString());
+        verify(jdbcTemplate).update(anyString(), any(), any(), any(), any(), any(), any(), any(), any());
+        verify(responseCacheService).invalidate("TRADING");
     }
 
     @Test